@@ -0,0 +1,28 @@
+package com.kovisoft.logger.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Every benchmark logs into its own temp directory so runs never touch the project tree.
+ */
+final class BenchmarkFiles {
+
+    private BenchmarkFiles(){}
+
+    static Path createDirectory(String prefix) throws IOException {
+        return Files.createTempDirectory(prefix);
+    }
+
+    static void deleteDirectory(Path path) throws IOException {
+        try(Stream<Path> paths = Files.walk(path)){
+            paths.sorted(Comparator.reverseOrder())
+                    .map(Path::toFile)
+                    .forEach(File::delete);
+        }
+    }
+}
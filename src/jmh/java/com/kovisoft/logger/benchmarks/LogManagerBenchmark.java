@@ -0,0 +1,69 @@
+package com.kovisoft.logger.benchmarks;
+
+import com.kovisoft.logger.exports.LogManager;
+import com.kovisoft.logger.exports.Logger;
+import com.kovisoft.logger.exports.LoggerFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of looking a logger up through the LogManager with a service sized registry.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LogManagerBenchmark {
+
+    private static final int LOGGERS = 150;
+
+    private Path directory;
+    private LogManager manager;
+    private String[] shortNames;
+    private String[] paths;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        directory = BenchmarkFiles.createDirectory("logger-manager");
+        manager = LoggerFactory.getLogManager();
+        shortNames = new String[LOGGERS];
+        paths = new String[LOGGERS];
+        for(int i = 0; i < LOGGERS; i++){
+            shortNames[i] = "manager" + i;
+            paths[i] = directory + "/" + shortNames[i];
+            LoggerFactory.createLogger(directory.toString(), shortNames[i]);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown() throws IOException {
+        LoggerFactory.shutdownManager();
+        BenchmarkFiles.deleteDirectory(directory);
+    }
+
+    @Benchmark
+    public Logger getLogger(Cursor cursor){
+        return manager.getLogger(shortNames[cursor.next++ % LOGGERS]);
+    }
+
+    @Benchmark
+    public Logger getLoggerByPath(Cursor cursor){
+        return manager.getLoggerByPath(paths[cursor.next++ % LOGGERS]);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Logger getLogger_8threads(Cursor cursor){
+        return manager.getLogger(shortNames[cursor.next++ % LOGGERS]);
+    }
+}
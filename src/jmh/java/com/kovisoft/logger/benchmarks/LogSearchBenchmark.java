@@ -0,0 +1,63 @@
+package com.kovisoft.logger.benchmarks;
+
+import com.kovisoft.logger.config.LoggerConfig;
+import com.kovisoft.logger.config.RollingPolicy;
+import com.kovisoft.logger.exports.LogLevel;
+import com.kovisoft.logger.exports.Logger;
+import com.kovisoft.logger.loggerImpl.LoggerImpl;
+import com.kovisoft.logger.reader.LogSearch;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counts errors per hour over a few hundred MB of rolled files with growing pool sizes,
+ * the time should fall about in step with the parallelism up to the number of cores.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class LogSearchBenchmark {
+
+    private static final int EVENTS = 4_000_000;
+    private static final ZoneId ZONE = ZoneId.of("UTC");
+
+    @Param({"1", "2", "4", "8"})
+    public int parallelism;
+
+    private Path directory;
+    private ForkJoinPool pool;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        directory = BenchmarkFiles.createDirectory("logger-search");
+        Logger logger = new LoggerImpl(new LoggerConfig(directory.toString(), "search").setZone(ZONE)
+                .setRollingPolicy(new RollingPolicy().setMaxFileBytes(64L * 1024 * 1024)));
+        Exception failure = new IllegalStateException("Downstream unavailable");
+        for(int i = 0; i < EVENTS; i++){
+            if(i % 100 == 0) logger.error("Request " + i % 7 + " failed", failure);
+            else logger.info("Request {} served in {} ms", i, i % 250);
+        }
+        logger.stopRunning();
+        pool = new ForkJoinPool(parallelism);
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown() throws IOException {
+        pool.shutdown();
+        BenchmarkFiles.deleteDirectory(directory);
+    }
+
+    @Benchmark
+    public Map<?, Long> errorsPerHour() throws IOException {
+        return LogSearch.forLogger(directory, "search", ZONE).setPool(pool).setLevels(LogLevel.ERROR).countByHour();
+    }
+}
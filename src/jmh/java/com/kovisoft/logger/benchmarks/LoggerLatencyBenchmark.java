@@ -0,0 +1,68 @@
+package com.kovisoft.logger.benchmarks;
+
+import com.kovisoft.logger.config.LoggerConfig;
+import com.kovisoft.logger.exports.Logger;
+import com.kovisoft.logger.loggerImpl.LoggerImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency percentiles, both what the caller pays for a call and how long a lone event
+ * takes to reach the file. Sampled, so JMH reports p50 through p99.99.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoggerLatencyBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class LoggerState {
+        Path directory;
+        Logger logger;
+        File file;
+
+        @Setup(Level.Trial)
+        public void setup() throws IOException {
+            directory = BenchmarkFiles.createDirectory("logger-latency");
+            logger = new LoggerImpl(new LoggerConfig(directory.toString(), "latency"));
+            file = logger.getFile();
+        }
+
+        @TearDown(Level.Trial)
+        public void teardown() throws Exception {
+            logger.stopRunning();
+            BenchmarkFiles.deleteDirectory(directory);
+        }
+    }
+
+    @Benchmark
+    public void caller_log(LoggerState state){
+        state.logger.log("Benchmark latency message");
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void caller_log_8threads(LoggerState state){
+        state.logger.log("Benchmark latency message");
+    }
+
+    /**
+     * From the call until the line is visible in the file, the writer flushes once the queue is empty.
+     */
+    @Benchmark
+    public long enqueue_to_disk(LoggerState state){
+        long before = state.file.length();
+        state.logger.log("Benchmark latency message");
+        long after;
+        while((after = state.file.length()) <= before){
+            Thread.onSpinWait();
+        }
+        return after;
+    }
+}
@@ -0,0 +1,83 @@
+package com.kovisoft.logger.benchmarks;
+
+import com.kovisoft.logger.config.LogFormat;
+import com.kovisoft.logger.config.LoggerConfig;
+import com.kovisoft.logger.exports.LogLevel;
+import com.kovisoft.logger.exports.Logger;
+import com.kovisoft.logger.loggerImpl.LoggerImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Calls per microsecond from one and from eight producer threads into a single logger.
+ * Run with -prof gc to get the allocation rate per call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoggerThroughputBenchmark {
+
+    // The writer has to keep up for the callers not to block, so the cheaper encoding shows here too.
+    @Param({"TEXT", "BINARY"})
+    public LogFormat format;
+
+    private Path directory;
+    private Logger logger;
+    private Logger warnOnly;
+    private final Exception exception = new Exception("Benchmark exception");
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        directory = BenchmarkFiles.createDirectory("logger-throughput");
+        logger = new LoggerImpl(new LoggerConfig(directory.toString(), "throughput").setFormat(format));
+        warnOnly = new LoggerImpl(new LoggerConfig(directory.toString(), "warnOnly").setLevel(LogLevel.WARN));
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown() throws Exception {
+        logger.stopRunning();
+        warnOnly.stopRunning();
+        BenchmarkFiles.deleteDirectory(directory);
+    }
+
+    @Benchmark
+    public void log(){
+        logger.log("Benchmark log message");
+    }
+
+    @Benchmark
+    public void error_exception(){
+        logger.error("Benchmark error message", exception);
+    }
+
+    @Benchmark
+    public void log_pattern(){
+        logger.log("Benchmark {} message {}", exception, this);
+    }
+
+    /**
+     * A call on a disabled level, should be within noise of an empty method.
+     */
+    @Benchmark
+    public void info_disabled(){
+        warnOnly.info("Benchmark info message");
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void log_8threads(){
+        logger.log("Benchmark log message");
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void error_exception_8threads(){
+        logger.error("Benchmark error message", exception);
+    }
+}
@@ -0,0 +1,69 @@
+package com.kovisoft.logger.benchmarks;
+
+import com.kovisoft.logger.config.LoggerConfig;
+import com.kovisoft.logger.exports.Logger;
+import com.kovisoft.logger.loggerImpl.LoggerImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 100k tasks, one event each, through one logger, on a virtual thread per task or on a pool of
+ * platform threads the size of the machine. Measures how the enqueue path scales with many
+ * short lived callers instead of a few hot ones.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class VirtualThreadBenchmark {
+
+    private static final int TASKS = 100_000;
+
+    @Param({"VIRTUAL", "PLATFORM"})
+    public String threads;
+
+    // Smaller than the number of tasks, so callers do wait for the writer.
+    @Param({"1024", "65536"})
+    public int queueCapacity;
+
+    private Path directory;
+    private Logger logger;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        directory = BenchmarkFiles.createDirectory("logger-virtual");
+        logger = new LoggerImpl(new LoggerConfig(directory.toString(), "virtual").setQueueCapacity(queueCapacity));
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown() throws Exception {
+        logger.stopRunning();
+        BenchmarkFiles.deleteDirectory(directory);
+    }
+
+    @Benchmark
+    public void log_100kTasks() throws InterruptedException {
+        try(ExecutorService executor = newExecutor()){
+            for(int i = 0; i < TASKS; i++){
+                final int task = i;
+                executor.execute(() -> logger.log("Benchmark task {}", task));
+            }
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        }
+    }
+
+    private ExecutorService newExecutor(){
+        if(threads.equals("VIRTUAL")) return Executors.newVirtualThreadPerTaskExecutor();
+        ThreadFactory factory = Thread.ofPlatform().daemon().factory();
+        return Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), factory);
+    }
+}
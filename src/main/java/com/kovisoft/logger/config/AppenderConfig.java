@@ -0,0 +1,100 @@
+package com.kovisoft.logger.config;
+
+import com.kovisoft.logger.exports.LogLevel;
+
+import java.time.Duration;
+
+/**
+ * An extra destination for a logger's lines, added with LoggerConfig.addAppender. Every line is encoded once,
+ * in the logger's format, and the same bytes go to the file and to each appender. Each appender has its own
+ * queue and thread, so a slow or unreachable sink only ever drops its own lines and never stalls the file
+ * or the other appenders. Logger.sync only covers the file. Stack traces are always sent in full, even when the file
+ * only refers back to them, and BINARY loggers cannot have appenders as their records depend on the file before them.
+ */
+public class AppenderConfig {
+    private final AppenderType type;
+    private final String name;
+    private final String host;
+    private final int port;
+    private final Sink sink;
+    private LogLevel level = LogLevel.INFO;
+    private int queueCapacity = 4096;
+    private OverflowPolicy overflowPolicy = OverflowPolicy.DROP;
+    private long blockTimeoutMillis = 100;
+
+    private AppenderConfig(AppenderType type, String name, String host, int port, Sink sink){
+        this.type = type;
+        this.name = name;
+        this.host = host;
+        this.port = port;
+        this.sink = sink;
+    }
+
+    public static AppenderConfig console(){
+        return new AppenderConfig(AppenderType.CONSOLE, "console", null, 0, null);
+    }
+
+    public static AppenderConfig tcp(String host, int port){
+        return new AppenderConfig(AppenderType.TCP, "tcp:" + host + ":" + port, host, port, null);
+    }
+
+    public static AppenderConfig udp(String host, int port){
+        return new AppenderConfig(AppenderType.UDP, "udp:" + host + ":" + port, host, port, null);
+    }
+
+    /**
+     * @param name Used for the appender's thread and in the summary of what it dropped.
+     */
+    public static AppenderConfig custom(String name, Sink sink){
+        return new AppenderConfig(AppenderType.CUSTOM, name, null, 0, sink);
+    }
+
+    /**
+     * The least severe level this appender gets, INFO unless set. Events the logger's own level drops never reach it.
+     */
+    public AppenderConfig setLevel(LogLevel level){
+        this.level = level;
+        return this;
+    }
+
+    /**
+     * The number of lines waiting for the sink before the overflow policy kicks in, 4096 unless set.
+     */
+    public AppenderConfig setQueueCapacity(int queueCapacity){
+        if(queueCapacity < 1) throw new IllegalArgumentException("Queue capacity must be positive: " + queueCapacity);
+        this.queueCapacity = queueCapacity;
+        return this;
+    }
+
+    /**
+     * DROP unless set. It is the logger's writer that waits under BLOCK and BLOCK_TIMEOUT, holding up the file,
+     * so only DROP, DROP_OLDEST and BLOCK_TIMEOUT are accepted.
+     */
+    public AppenderConfig setOverflowPolicy(OverflowPolicy overflowPolicy){
+        if(overflowPolicy != OverflowPolicy.DROP && overflowPolicy != OverflowPolicy.DROP_OLDEST
+                && overflowPolicy != OverflowPolicy.BLOCK_TIMEOUT){
+            throw new IllegalArgumentException("Appenders support DROP, DROP_OLDEST and BLOCK_TIMEOUT: " + overflowPolicy);
+        }
+        this.overflowPolicy = overflowPolicy;
+        return this;
+    }
+
+    /**
+     * How long BLOCK_TIMEOUT waits for room before dropping the line, 100ms unless set.
+     */
+    public AppenderConfig setBlockTimeout(Duration blockTimeout){
+        if(blockTimeout.isNegative()) throw new IllegalArgumentException("Block timeout cannot be negative: " + blockTimeout);
+        this.blockTimeoutMillis = blockTimeout.toMillis();
+        return this;
+    }
+
+    public AppenderType getType(){return type;}
+    public String getName(){return name;}
+    public String getHost(){return host;}
+    public int getPort(){return port;}
+    public Sink getSink(){return sink;}
+    public LogLevel getLevel(){return level;}
+    public int getQueueCapacity(){return queueCapacity;}
+    public OverflowPolicy getOverflowPolicy(){return overflowPolicy;}
+    public long getBlockTimeoutMillis(){return blockTimeoutMillis;}
+}
@@ -0,0 +1,15 @@
+package com.kovisoft.logger.config;
+
+/**
+ * Where an appender sends the lines of a logger, alongside its log file.
+ */
+public enum AppenderType {
+    /** Standard output, for containers that collect it. */
+    CONSOLE,
+    /** A TCP connection to a collector, reconnected after a failure. */
+    TCP,
+    /** One UDP datagram per line, lines longer than a datagram are cut short. */
+    UDP,
+    /** A Sink supplied by the application. */
+    CUSTOM
+}
@@ -0,0 +1,82 @@
+package com.kovisoft.logger.config;
+
+import com.kovisoft.logger.exports.LogLevel;
+
+/**
+ * Decides when the writer flushes what it has written to the file.
+ * Every limit is off when set to 0, the default only flushes once the queue has been drained.
+ */
+public class FlushPolicy {
+    private int maxEvents = 0;
+    private long maxBytes = 0;
+    private long maxMillis = 0;
+    private boolean flushOnEmpty = true;
+    private LogLevel flushLevel = null;
+    private LogLevel syncLevel = null;
+
+    /**
+     * A policy that only flushes once the queue has been drained, change it through the setters.
+     */
+    public FlushPolicy(){
+    }
+
+    /** Flush after this many unflushed events. */
+    public FlushPolicy setMaxEvents(int maxEvents){
+        this.maxEvents = Math.max(0, maxEvents);
+        return this;
+    }
+
+    /** Flush once roughly this many bytes are waiting in the buffer. */
+    public FlushPolicy setMaxBytes(long maxBytes){
+        this.maxBytes = Math.max(0, maxBytes);
+        return this;
+    }
+
+    /** Flush when the oldest unflushed event has been waiting this long. */
+    public FlushPolicy setMaxMillis(long maxMillis){
+        this.maxMillis = Math.max(0, maxMillis);
+        return this;
+    }
+
+    /** Flush whenever the writer finds the queue empty after a batch. */
+    public FlushPolicy setFlushOnEmpty(boolean flushOnEmpty){
+        this.flushOnEmpty = flushOnEmpty;
+        return this;
+    }
+
+    /**
+     * Events at this level or more severe are flushed right away, null turns it off.
+     * Use LogLevel.ERROR to keep errors durable while everything else is batched.
+     */
+    public FlushPolicy setFlushLevel(LogLevel flushLevel){
+        this.flushLevel = flushLevel;
+        return this;
+    }
+
+    /**
+     * Batches holding an event at this level or more severe are forced to the storage device before the writer
+     * moves on, null turns it off. One force covers the whole batch, so a burst of errors costs one sync rather
+     * than one each. The force runs on the writer thread, give such a logger a dedicated writer.
+     */
+    public FlushPolicy setSyncLevel(LogLevel syncLevel){
+        this.syncLevel = syncLevel;
+        return this;
+    }
+
+    public boolean shouldSync(LogLevel level){
+        return syncLevel != null && level.ordinal() <= syncLevel.ordinal();
+    }
+
+    public boolean shouldFlush(LogLevel level, int unflushedEvents, long unflushedBytes){
+        if(flushLevel != null && level.ordinal() <= flushLevel.ordinal()) return true;
+        if(maxEvents > 0 && unflushedEvents >= maxEvents) return true;
+        return maxBytes > 0 && unflushedBytes >= maxBytes;
+    }
+
+    public int getMaxEvents(){return maxEvents;}
+    public long getMaxBytes(){return maxBytes;}
+    public long getMaxMillis(){return maxMillis;}
+    public boolean isFlushOnEmpty(){return flushOnEmpty;}
+    public LogLevel getFlushLevel(){return flushLevel;}
+    public LogLevel getSyncLevel(){return syncLevel;}
+}
@@ -0,0 +1,21 @@
+package com.kovisoft.logger.config;
+
+/**
+ * Lays events out in the log file when neither TEXT, BINARY nor JSON fit, set with LoggerConfig.setLayout.
+ * Called on the writer thread only, one event at a time, so an implementation may keep reusable state.
+ */
+public interface Layout {
+
+    /**
+     * Appends the event without a line separator, the writer adds one after it.
+     * Anything thrown is written to the file in place of the event.
+     */
+    void format(LayoutEvent event, StringBuilder out);
+
+    /**
+     * The first line of every new file, null for none.
+     */
+    default String header(){
+        return null;
+    }
+}
@@ -0,0 +1,19 @@
+package com.kovisoft.logger.config;
+
+import com.kovisoft.logger.exports.Fields;
+import com.kovisoft.logger.exports.LogLevel;
+
+/**
+ * What a Layout gets to see of an event. Only valid for the duration of Layout.format,
+ * the event behind it is reused for later calls.
+ */
+public interface LayoutEvent {
+    long getEpochNanos();
+    LogLevel getLevel();
+    /** The message with its placeholders filled in. */
+    String getMessage();
+    /** Null if none was logged. */
+    Throwable getThrowable();
+    /** Null if none were logged. */
+    Fields getFields();
+}
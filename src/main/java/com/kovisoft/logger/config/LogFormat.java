@@ -0,0 +1,19 @@
+package com.kovisoft.logger.config;
+
+/**
+ * How events are laid out in the log file.
+ */
+public enum LogFormat {
+    /** Delimited text rows under the Time, Date, Type, Message, ExceptionMessage, StackTrace header. */
+    TEXT,
+    /**
+     * Compact binary records, varint timestamps, a level byte, length prefixed UTF-8 and stack frames
+     * written once per file. Read back with com.kovisoft.logger.reader.BinaryLogReader.
+     */
+    BINARY,
+    /**
+     * JSON Lines, one object per line with time, level, message and, when present, fields and exception.
+     * No header, so files can be concatenated and fed to any JSON Lines reader as they are.
+     */
+    JSON
+}
@@ -1,17 +1,48 @@
 package com.kovisoft.logger.config;
 
+import com.kovisoft.logger.exports.LogLevel;
+
 import java.io.File;
 import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
 
 public class LoggerConfig {
     public final String OUTPUT_DIRECTORY;
-    public final String OUTPUT_FILE;
-    private final File logFile;
+    public String OUTPUT_FILE;
+    private File logFile;
 
     private String shortName;
     private int daysToLog = 10;
-    private final LocalDate date = LocalDate.now();
+    private boolean deferredFormatting = true;
+    private int queueCapacity = 8192;
+    private OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK;
+    private long blockTimeoutMillis = 100;
+    private LogLevel overflowLevel = LogLevel.WARN;
+    private int sampleRate = 10;
+    private boolean dedicatedWriter = false;
+    private WaitStrategy waitStrategy = WaitStrategy.BLOCKING;
+    private FlushPolicy flushPolicy = new FlushPolicy();
+    private RollingPolicy rollingPolicy = new RollingPolicy();
+    private RateLimitPolicy rateLimitPolicy = new RateLimitPolicy();
+    private OutputType outputType = OutputType.FILE_CHANNEL;
+    private LogFormat format = LogFormat.TEXT;
+    private Layout layout = null;
+    private int stackTraceCacheSize = 256;
+    private boolean stackTraceReferences = false;
+    private boolean indexed = false;
+    private int indexBlockBytes = 64 * 1024;
+    private long indexBucketMillis = 60_000;
+    private int mappedRegionSize = 16 * 1024 * 1024;
+    private final List<AppenderConfig> appenders = new ArrayList<>();
+    private ZoneId zone = ZoneId.of("America/New_York");
+    private LogLevel level = LogLevel.INFO;
+    private Clock clock = Clock.systemDefaultZone();
+    private LocalDate date = LocalDate.now(clock);
 
     private final static String LOG_CREATION_FAILURE = "Could not generate log file in existing directory.%nLog File: %s,%nDirectory %s%n";
     private final static String LOG_ALREADY_EXIST_NOT_FILE = "Could not generate log file as it exists but is not a file. Log File: %s%n";
@@ -22,7 +53,7 @@ public class LoggerConfig {
         OUTPUT_DIRECTORY = outputDir;
         this.shortName = shortName;
         OUTPUT_FILE = getFileName();
-        this.logFile = genFileIfAbsent();
+        this.logFile = genFileIfAbsent(OUTPUT_FILE);
     }
     public LoggerConfig(String outputPath) throws RuntimeException{
         int lastIndex = outputPath.lastIndexOf('/');
@@ -30,7 +61,7 @@ public class LoggerConfig {
         OUTPUT_DIRECTORY = outputPath.substring(0, lastIndex);
         this.shortName = outputPath.substring(lastIndex + 1);
         OUTPUT_FILE = getFileName();
-        this.logFile = genFileIfAbsent();
+        this.logFile = genFileIfAbsent(OUTPUT_FILE);
     }
 
     public LoggerConfig(String outputDir, String outputFile, int daysToLog) throws RuntimeException{
@@ -47,21 +78,41 @@ public class LoggerConfig {
         if(shortName.endsWith(".log")) {
             this.shortName = shortName.substring(0, shortName.length() - 4);
         }
-        return shortName + date.toString() + ".log";
+        return fileNameFor(date, -1, 0);
+    }
+
+    /**
+     * The name of a log file, shortName + date + ".log" with "-HH" added for hourly files
+     * and ".index" for files rolled on size within the same period.
+     * @param hour The hour for hourly files, -1 otherwise.
+     * @param index 0 for the first file of the period.
+     */
+    public final String fileNameFor(LocalDate date, int hour, int index){
+        StringBuilder name = new StringBuilder(shortName).append(date);
+        if(hour >= 0) name.append(hour < 10 ? "-0" : "-").append(hour);
+        if(index > 0) name.append('.').append(index);
+        return name.append(".log").toString();
     }
 
+    /**
+     * The log file in the same directory, created if absent. Used by the writer when it rolls over to a new file.
+     */
+    public File createLogFile(LocalDate date, int hour, int index) throws RuntimeException{
+        return genFileIfAbsent(fileNameFor(date, hour, index));
+    }
 
-    private File genFileIfAbsent() throws RuntimeException{
+
+    private File genFileIfAbsent(String fileName) throws RuntimeException{
         File directory = new File(OUTPUT_DIRECTORY);
-        File log = new File(directory, OUTPUT_FILE);
+        File log = new File(directory, fileName);
         try{
             if(log.exists() && log.isFile()) return log;
             if(log.exists()){
-                throw new RuntimeException(String.format(LOG_ALREADY_EXIST_NOT_FILE, OUTPUT_FILE));
+                throw new RuntimeException(String.format(LOG_ALREADY_EXIST_NOT_FILE, fileName));
             }
             if(directory.exists() && directory.isDirectory()){
                 if(log.createNewFile()) return log;
-                throw new RuntimeException(String.format(LOG_CREATION_FAILURE, OUTPUT_FILE, OUTPUT_DIRECTORY));
+                throw new RuntimeException(String.format(LOG_CREATION_FAILURE, fileName, OUTPUT_DIRECTORY));
             }
             if(directory.exists()){
                 throw new RuntimeException(String.format(DIRECTORY_NOT_DIRECTORY, OUTPUT_DIRECTORY));
@@ -70,7 +121,7 @@ public class LoggerConfig {
                 throw new RuntimeException(String.format(DIRECTORIES_NOT_CREATED, OUTPUT_DIRECTORY));
             }
             if(!log.createNewFile()){
-                throw new RuntimeException(String.format(LOG_CREATION_FAILURE, OUTPUT_FILE, OUTPUT_DIRECTORY));
+                throw new RuntimeException(String.format(LOG_CREATION_FAILURE, fileName, OUTPUT_DIRECTORY));
             }
             return log;
         } catch (IOException e) {
@@ -78,8 +129,231 @@ public class LoggerConfig {
         }
     }
 
+    /**
+     * When true (default) callers only capture the raw event and the writer thread
+     * renders the timestamp and columns. Set to false to format on the calling thread.
+     */
+    public LoggerConfig setDeferredFormatting(boolean deferredFormatting){
+        this.deferredFormatting = deferredFormatting;
+        return this;
+    }
+
+    /**
+     * The number of events the logger can hold before the overflow policy kicks in.
+     * Rounded up to the next power of two.
+     */
+    public LoggerConfig setQueueCapacity(int queueCapacity){
+        if(queueCapacity < 1) throw new IllegalArgumentException("Queue capacity must be positive: " + queueCapacity);
+        this.queueCapacity = queueCapacity;
+        return this;
+    }
+
+    public LoggerConfig setOverflowPolicy(OverflowPolicy overflowPolicy){
+        this.overflowPolicy = overflowPolicy;
+        return this;
+    }
+
+    /**
+     * How long BLOCK_TIMEOUT waits for a slot before dropping the event, 100ms unless set.
+     */
+    public LoggerConfig setBlockTimeout(Duration blockTimeout){
+        if(blockTimeout.isNegative()) throw new IllegalArgumentException("Block timeout cannot be negative: " + blockTimeout);
+        this.blockTimeoutMillis = blockTimeout.toMillis();
+        return this;
+    }
+
+    /**
+     * The least severe level DROP_BELOW_LEVEL still waits for a slot for, WARN unless set.
+     */
+    public LoggerConfig setOverflowLevel(LogLevel overflowLevel){
+        this.overflowLevel = overflowLevel;
+        return this;
+    }
+
+    /**
+     * SAMPLE keeps one in this many events while the queue is full, 10 unless set.
+     */
+    public LoggerConfig setSampleRate(int sampleRate){
+        if(sampleRate < 1) throw new IllegalArgumentException("Sample rate must be positive: " + sampleRate);
+        this.sampleRate = sampleRate;
+        return this;
+    }
+
+    /**
+     * By default loggers share the LogManager's writer threads. A dedicated writer gives this
+     * logger its own thread, using the wait strategy below, for when latency matters more than threads.
+     */
+    public LoggerConfig setDedicatedWriter(boolean dedicatedWriter){
+        this.dedicatedWriter = dedicatedWriter;
+        return this;
+    }
+
+    /**
+     * Only used by dedicated writers, the shared writers use the LogManager's strategy.
+     */
+    public LoggerConfig setWaitStrategy(WaitStrategy waitStrategy){
+        this.waitStrategy = waitStrategy;
+        return this;
+    }
+
+    public LoggerConfig setFlushPolicy(FlushPolicy flushPolicy){
+        this.flushPolicy = flushPolicy;
+        return this;
+    }
+
+    public LoggerConfig setRollingPolicy(RollingPolicy rollingPolicy){
+        this.rollingPolicy = rollingPolicy;
+        return this;
+    }
+
+    /**
+     * How many distinct stack traces are kept rendered, the least recently used are evicted beyond that.
+     * 0 renders every trace afresh.
+     */
+    public LoggerConfig setStackTraceCacheSize(int stackTraceCacheSize){
+        if(stackTraceCacheSize < 0) throw new IllegalArgumentException("Stack trace cache size cannot be negative: " + stackTraceCacheSize);
+        this.stackTraceCacheSize = stackTraceCacheSize;
+        return this;
+    }
+
+    /**
+     * When true a trace is written in full once per file, starting with "trace #id", and every repeat
+     * only writes "see trace #id" in the StackTrace column. Text format with deferred formatting only.
+     */
+    public LoggerConfig setStackTraceReferences(boolean stackTraceReferences){
+        this.stackTraceReferences = stackTraceReferences;
+        return this;
+    }
+
+    /**
+     * When true a TEXT logger keeps a sparse index next to each file, name.log.idx, so
+     * com.kovisoft.logger.reader.IndexedLogReader can answer time and level queries without reading the whole file.
+     * Ignored for BINARY, JSON and custom layouts.
+     */
+    public LoggerConfig setIndexed(boolean indexed){
+        this.indexed = indexed;
+        return this;
+    }
+
+    /**
+     * How coarse the index is. An entry covers at most about blockBytes of the file and never more than one
+     * bucket of time, 64 KiB and one minute unless set. Smaller blocks mean less to read past per query
+     * and a larger index.
+     */
+    public LoggerConfig setIndexBlock(int blockBytes, Duration bucket){
+        if(blockBytes < 1024) throw new IllegalArgumentException("Index blocks must be at least 1024 bytes: " + blockBytes);
+        if(bucket.toMillis() < 1) throw new IllegalArgumentException("Index bucket must be at least a millisecond: " + bucket);
+        this.indexBlockBytes = blockBytes;
+        this.indexBucketMillis = bucket.toMillis();
+        return this;
+    }
+
+    public LoggerConfig setRateLimitPolicy(RateLimitPolicy rateLimitPolicy){
+        this.rateLimitPolicy = rateLimitPolicy;
+        return this;
+    }
+
+    /**
+     * Also sends every line to the appender, on top of the log file. Can be called once per destination.
+     */
+    public LoggerConfig addAppender(AppenderConfig appender){
+        appenders.add(appender);
+        return this;
+    }
+
+    public LoggerConfig setOutputType(OutputType outputType){
+        this.outputType = outputType;
+        return this;
+    }
+
+    /**
+     * TEXT unless set. BINARY files keep the .log name but start with a magic header instead of the column header.
+     * BINARY and JSON are always encoded on the writer thread, deferredFormatting is ignored for them.
+     */
+    public LoggerConfig setFormat(LogFormat format){
+        this.format = format;
+        return this;
+    }
+
+    /**
+     * Lays events out with a Layout of your own instead of the format, on the writer thread.
+     * Null goes back to the format.
+     */
+    public LoggerConfig setLayout(Layout layout){
+        this.layout = layout;
+        return this;
+    }
+
+    /**
+     * How much of the file a MEMORY_MAPPED output maps at a time, the file grows in steps of this size
+     * while the logger runs and is truncated to its real length on close.
+     */
+    public LoggerConfig setMappedRegionSize(int mappedRegionSize){
+        if(mappedRegionSize < 4096) throw new IllegalArgumentException("Mapped region must be at least 4096 bytes: " + mappedRegionSize);
+        this.mappedRegionSize = mappedRegionSize;
+        return this;
+    }
+
+    /**
+     * The zone the Time and Date columns are written in, America/New_York unless set.
+     */
+    public LoggerConfig setZone(ZoneId zone){
+        this.zone = zone;
+        return this;
+    }
+
+    /**
+     * The least severe level the logger starts out writing, INFO writes everything.
+     * Can be changed while running through Logger.setLevel or the LogManager.
+     */
+    public LoggerConfig setLevel(LogLevel level){
+        this.level = level;
+        return this;
+    }
+
+    /**
+     * The clock the rolling policy reads to decide when a period is over and which file comes next,
+     * the system clock unless set. The log file is dated by it too. Event timestamps do not use it.
+     */
+    public LoggerConfig setClock(Clock clock){
+        this.clock = clock;
+        LocalDate today = LocalDate.now(clock);
+        if(!today.equals(date)){
+            // The constructor created the file for the system date, drop it unless something was already written to it.
+            if(logFile.length() == 0) logFile.delete();
+            date = today;
+            OUTPUT_FILE = getFileName();
+            logFile = genFileIfAbsent(OUTPUT_FILE);
+        }
+        return this;
+    }
+
     public File getLogFile(){return logFile;}
     public String getShortName(){return shortName;}
     public int getDaysToLog(){return daysToLog;}
     public LocalDate getDate(){return date;}
+    public boolean isDeferredFormatting(){return deferredFormatting;}
+    public int getQueueCapacity(){return queueCapacity;}
+    public OverflowPolicy getOverflowPolicy(){return overflowPolicy;}
+    public long getBlockTimeoutMillis(){return blockTimeoutMillis;}
+    public LogLevel getOverflowLevel(){return overflowLevel;}
+    public int getSampleRate(){return sampleRate;}
+    public boolean isDedicatedWriter(){return dedicatedWriter;}
+    public WaitStrategy getWaitStrategy(){return waitStrategy;}
+    public FlushPolicy getFlushPolicy(){return flushPolicy;}
+    public RollingPolicy getRollingPolicy(){return rollingPolicy;}
+    public RateLimitPolicy getRateLimitPolicy(){return rateLimitPolicy;}
+    public OutputType getOutputType(){return outputType;}
+    public LogFormat getFormat(){return format;}
+    public Layout getLayout(){return layout;}
+    public int getStackTraceCacheSize(){return stackTraceCacheSize;}
+    public boolean isStackTraceReferences(){return stackTraceReferences;}
+    public boolean isIndexed(){return indexed;}
+    public int getIndexBlockBytes(){return indexBlockBytes;}
+    public long getIndexBucketMillis(){return indexBucketMillis;}
+    public int getMappedRegionSize(){return mappedRegionSize;}
+    public List<AppenderConfig> getAppenders(){return List.copyOf(appenders);}
+    public ZoneId getZone(){return zone;}
+    public LogLevel getLevel(){return level;}
+    public Clock getClock(){return clock;}
 }
@@ -0,0 +1,11 @@
+package com.kovisoft.logger.config;
+
+/**
+ * How a logger gets its lines into the log file.
+ */
+public enum OutputType {
+    /** Lines are collected in a direct buffer and appended with FileChannel.write. */
+    FILE_CHANNEL,
+    /** Lines are encoded straight into a memory mapped region of the file, remapped as the file grows. */
+    MEMORY_MAPPED
+}
@@ -0,0 +1,22 @@
+package com.kovisoft.logger.config;
+
+/**
+ * What a calling thread does when a logger's queue is full.
+ * Every event a policy drops is counted, and the writer logs how many once the queue has drained.
+ */
+public enum OverflowPolicy {
+    /** Park the caller until the writer frees a slot, nothing is lost. */
+    BLOCK,
+    /** Park the caller for at most the configured block timeout, then drop the event. */
+    BLOCK_TIMEOUT,
+    /** Discard the new event and return immediately. */
+    DROP,
+    /** Discard the oldest queued event to make room for the new one, the caller never waits on the writer. */
+    DROP_OLDEST,
+    /** Discard events less severe than the configured overflow level, block for the rest. */
+    DROP_BELOW_LEVEL,
+    /** Block for one in every sample rate events that find the queue full and discard the others. */
+    SAMPLE,
+    /** Busy spin until a slot frees up, lowest latency but burns the callers core. */
+    SPIN
+}
@@ -0,0 +1,66 @@
+package com.kovisoft.logger.config;
+
+import com.kovisoft.logger.exports.LogLevel;
+
+import java.time.Duration;
+
+/**
+ * Protects a logger from call sites that flood it. Token bucket limits for the whole logger and per level,
+ * plus duplicate suppression that writes a repeated message once and a count when its window ends.
+ * Everything is checked on the calling thread before the event is queued, without locks.
+ * Every limit is off when set to 0, which is the default.
+ */
+public class RateLimitPolicy {
+    private double eventsPerSecond = 0;
+    private int burst = 1;
+    private final double[] levelRates = new double[LogLevel.values().length];
+    private final int[] levelBursts = new int[LogLevel.values().length];
+    private long duplicateWindowMillis = 0;
+
+    /**
+     * A policy with every limit off, set the ones needed through the setters.
+     */
+    public RateLimitPolicy(){
+    }
+
+    /**
+     * At most this many events per second over the whole logger, with bursts of up to burst events.
+     */
+    public RateLimitPolicy setLimit(double eventsPerSecond, int burst){
+        this.eventsPerSecond = Math.max(0, eventsPerSecond);
+        this.burst = Math.max(1, burst);
+        return this;
+    }
+
+    /**
+     * A limit for one level on top of the logger wide one.
+     */
+    public RateLimitPolicy setLevelLimit(LogLevel level, double eventsPerSecond, int burst){
+        levelRates[level.ordinal()] = Math.max(0, eventsPerSecond);
+        levelBursts[level.ordinal()] = Math.max(1, burst);
+        return this;
+    }
+
+    /**
+     * Identical messages at the same level within this window after the first are not written,
+     * a "(repeated N times)" line follows once the window is over.
+     */
+    public RateLimitPolicy setDuplicateWindow(Duration window){
+        this.duplicateWindowMillis = Math.max(0, window.toMillis());
+        return this;
+    }
+
+    public boolean hasLimits(){
+        if(eventsPerSecond > 0) return true;
+        for(double rate : levelRates){
+            if(rate > 0) return true;
+        }
+        return false;
+    }
+
+    public double getEventsPerSecond(){return eventsPerSecond;}
+    public int getBurst(){return burst;}
+    public double getLevelRate(LogLevel level){return levelRates[level.ordinal()];}
+    public int getLevelBurst(LogLevel level){return levelBursts[level.ordinal()];}
+    public long getDuplicateWindowMillis(){return duplicateWindowMillis;}
+}
@@ -0,0 +1,13 @@
+package com.kovisoft.logger.config;
+
+/**
+ * How often the writer starts a new file regardless of its size.
+ */
+public enum RollInterval {
+    /** A new file every hour, named shortName + date + "-HH.log". */
+    HOURLY,
+    /** A new file every day. */
+    DAILY,
+    /** A new file once the config's daysToLog have passed, the original behaviour. */
+    DAYS_TO_LOG
+}
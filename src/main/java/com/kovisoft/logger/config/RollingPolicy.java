@@ -0,0 +1,74 @@
+package com.kovisoft.logger.config;
+
+import java.time.Duration;
+
+/**
+ * Decides when the writer moves on to a new file and which of the old ones are kept.
+ * The size and time triggers combine, whichever is hit first rolls the file. Every limit is off when set to 0,
+ * the default rolls after daysToLog, keeps every file and leaves them uncompressed.
+ */
+public class RollingPolicy {
+    private long maxFileBytes = 0;
+    private RollInterval interval = RollInterval.DAYS_TO_LOG;
+    private int maxFiles = 0;
+    private long maxTotalBytes = 0;
+    private long maxAgeMillis = 0;
+    private boolean compress = false;
+
+    /**
+     * A policy that rolls after daysToLog and keeps every file uncompressed, change it through the setters.
+     */
+    public RollingPolicy(){
+    }
+
+    /**
+     * Roll once the file reaches this size. Files rolled within the same period are
+     * numbered, shortName + date + ".1.log", ".2.log" and so on.
+     */
+    public RollingPolicy setMaxFileBytes(long maxFileBytes){
+        this.maxFileBytes = Math.max(0, maxFileBytes);
+        return this;
+    }
+
+    public RollingPolicy setInterval(RollInterval interval){
+        this.interval = interval;
+        return this;
+    }
+
+    /** Keep at most this many files, counting the one being written. */
+    public RollingPolicy setMaxFiles(int maxFiles){
+        this.maxFiles = Math.max(0, maxFiles);
+        return this;
+    }
+
+    /** Delete the oldest files once all of them together take up more than this. */
+    public RollingPolicy setMaxTotalBytes(long maxTotalBytes){
+        this.maxTotalBytes = Math.max(0, maxTotalBytes);
+        return this;
+    }
+
+    /** Delete files last written longer ago than this. */
+    public RollingPolicy setMaxAge(Duration maxAge){
+        this.maxAgeMillis = Math.max(0, maxAge.toMillis());
+        return this;
+    }
+
+    /**
+     * Gzip files once they have been rolled, on a low priority background thread so it never holds up the writers.
+     */
+    public RollingPolicy setCompress(boolean compress){
+        this.compress = compress;
+        return this;
+    }
+
+    public boolean hasRetention(){
+        return maxFiles > 0 || maxTotalBytes > 0 || maxAgeMillis > 0;
+    }
+
+    public long getMaxFileBytes(){return maxFileBytes;}
+    public RollInterval getInterval(){return interval;}
+    public int getMaxFiles(){return maxFiles;}
+    public long getMaxTotalBytes(){return maxTotalBytes;}
+    public long getMaxAgeMillis(){return maxAgeMillis;}
+    public boolean isCompress(){return compress;}
+}
@@ -0,0 +1,23 @@
+package com.kovisoft.logger.config;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Receives the lines of a CUSTOM appender. Only ever called from the appender's own thread,
+ * so a slow sink holds up nothing but its own queue.
+ */
+public interface Sink extends Closeable {
+
+    /**
+     * Writes one encoded line, the line separator included. The array is shared with the other appenders
+     * and must not be changed. A sink that throws is given the next line after a short pause.
+     */
+    void write(byte[] line) throws IOException;
+
+    /**
+     * Called whenever the appender has caught up with its queue.
+     */
+    default void flush() throws IOException {
+    }
+}
@@ -0,0 +1,15 @@
+package com.kovisoft.logger.config;
+
+/**
+ * How a writer thread waits for new events once its queue is drained.
+ */
+public enum WaitStrategy {
+    /** Park until a producer wakes the writer, no CPU used while idle. */
+    BLOCKING,
+    /** Spin, then yield, then park in short naps. Producers never have to wake the writer. */
+    SLEEPING,
+    /** Spin briefly then keep yielding the core, low latency with moderate CPU use. */
+    YIELDING,
+    /** Never give up the core, lowest latency and a fully used core per writer. */
+    BUSY_SPIN
+}
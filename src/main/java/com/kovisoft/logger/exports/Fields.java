@@ -0,0 +1,77 @@
+package com.kovisoft.logger.exports;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Key value pairs logged alongside a message, in the order they were given.
+ * Like pattern arguments the values are only captured by reference, they are turned into text
+ * by the writer thread, so they must not be mutated after the call. Immutable, and can be kept
+ * in a constant when the same fields go with many calls.
+ */
+public final class Fields {
+
+    // key, value, key, value...
+    private final Object[] pairs;
+
+    private Fields(Object[] pairs){
+        for(int i = 0; i < pairs.length; i += 2){
+            Objects.requireNonNull(pairs[i], "Field key cannot be null");
+        }
+        this.pairs = pairs;
+    }
+
+    public static Fields of(String key, Object value){
+        return new Fields(new Object[]{key, value});
+    }
+
+    public static Fields of(String key1, Object value1, String key2, Object value2){
+        return new Fields(new Object[]{key1, value1, key2, value2});
+    }
+
+    public static Fields of(String key1, Object value1, String key2, Object value2, String key3, Object value3){
+        return new Fields(new Object[]{key1, value1, key2, value2, key3, value3});
+    }
+
+    /**
+     * @return New fields with this pair added at the end, this instance is left as it is.
+     */
+    public Fields and(String key, Object value){
+        Object[] more = Arrays.copyOf(pairs, pairs.length + 2);
+        more[pairs.length] = key;
+        more[pairs.length + 1] = value;
+        return new Fields(more);
+    }
+
+    public int size(){
+        return pairs.length / 2;
+    }
+
+    public String key(int index){
+        return (String) pairs[index * 2];
+    }
+
+    public Object value(int index){
+        return pairs[index * 2 + 1];
+    }
+
+    @Override
+    public boolean equals(Object o){
+        return o instanceof Fields other && Arrays.equals(pairs, other.pairs);
+    }
+
+    @Override
+    public int hashCode(){
+        return Arrays.hashCode(pairs);
+    }
+
+    @Override
+    public String toString(){
+        StringBuilder sb = new StringBuilder();
+        for(int i = 0; i < pairs.length; i += 2){
+            if(i > 0) sb.append(' ');
+            sb.append(pairs[i]).append('=').append(pairs[i + 1]);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,23 @@
+package com.kovisoft.logger.exports;
+
+/**
+ * The levels a Logger can write at, ordered from most to least severe.
+ * The label is what ends up in the Type column of the log file.
+ */
+public enum LogLevel {
+    ERROR("Error"),
+    EXCEPTION("Exception"),
+    WARN("Warn"),
+    LOG("Log"),
+    INFO("Info");
+
+    private final String label;
+
+    LogLevel(String label){
+        this.label = label;
+    }
+
+    public String getLabel(){
+        return label;
+    }
+}
@@ -1,5 +1,10 @@
 package com.kovisoft.logger.exports;
 
+import com.kovisoft.logger.config.LoggerConfig;
+import com.kovisoft.logger.config.WaitStrategy;
+
+import java.io.IOException;
+import java.util.Map;
 
 
 public interface LogManager {
@@ -14,8 +19,17 @@ public interface LogManager {
     Logger getLogger(String shortName);
     Logger getLoggerByPath(String logPath);
     Logger addLogger(Logger logger);
+    Logger createLogger(LoggerConfig config) throws IOException;
     void removeLogger(Logger logger);
     void removeLoggerByName(String shortName);
     void removeLoggerByPath(String logPath);
     void stopRunning();
+    boolean setLevel(String shortName, LogLevel level);
+    void setLevelForAll(LogLevel level);
+    void configureWriters(int threads, WaitStrategy strategy);
+    LogManagerMetrics getMetrics();
+    /**
+     * The metrics of every logger held, by short name.
+     */
+    Map<String, LoggerMetrics> getLoggerMetrics();
 }
@@ -0,0 +1,18 @@
+package com.kovisoft.logger.exports;
+
+/**
+ * Totals over every logger the LogManager holds, plus the shared writer threads.
+ */
+public interface LogManagerMetrics {
+
+    int getLoggerCount();
+    int getWriterThreads();
+    /** Per shared writer thread, the share of time it spent writing, between 0 and 1. */
+    double[] getWriterUtilization();
+
+    int getQueueDepth();
+    double getEventsPerSecond();
+    double getBytesPerSecond();
+    /** Dropped by overflow policies and rate limits together. */
+    long getDroppedEvents();
+}
@@ -0,0 +1,7 @@
+package com.kovisoft.logger.exports;
+
+/**
+ * Registered as com.kovisoft.logger:type=LogManager.
+ */
+public interface LogManagerMetricsMXBean extends LogManagerMetrics {
+}
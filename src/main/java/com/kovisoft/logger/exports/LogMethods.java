@@ -1,6 +1,23 @@
 package com.kovisoft.logger.exports;
 
+import java.util.function.Supplier;
+
+/**
+ * The pattern and supplier variants only capture references on the calling thread,
+ * the "{}" placeholders are filled in and the supplier is called by the writer thread.
+ * Arguments must therefore not be mutated after the call. The same goes for the values of Fields,
+ * which are written as key value pairs next to the message, or as their own object in JSON.
+ */
 public interface LogMethods {
     void log(String logMessage);
     void log(String logMessage, Exception e);
+    void log(String pattern, Object arg);
+    void log(String pattern, Object arg1, Object arg2);
+    void log(String pattern, Object arg1, Object arg2, Object arg3);
+    void log(String pattern, Object... args);
+    void log(Supplier<String> messageSupplier);
+    void log(Fields fields, String logMessage);
+    void log(Fields fields, String logMessage, Exception e);
+    void log(Fields fields, String pattern, Object arg);
+    void log(Fields fields, String pattern, Object arg1, Object arg2);
 }
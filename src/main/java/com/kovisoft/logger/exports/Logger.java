@@ -1,10 +1,14 @@
 package com.kovisoft.logger.exports;
 
+/**
+ * The level fields are swapped for a no-op when their level is disabled,
+ * volatile so a change made through setLevel is seen by every thread right away.
+ */
 public abstract class Logger implements LoggerInterface {
-    public LogMethods error;
-    public LogMethods log;
-    public LogMethods info;
-    public LogMethods except;
-    public LogMethods warn;
+    public volatile LogMethods error;
+    public volatile LogMethods log;
+    public volatile LogMethods info;
+    public volatile LogMethods except;
+    public volatile LogMethods warn;
 
 }
@@ -1,8 +1,9 @@
 package com.kovisoft.logger.exports;
 
 import com.kovisoft.logger.config.LoggerConfig;
+import com.kovisoft.logger.config.OutputType;
+import com.kovisoft.logger.config.WaitStrategy;
 import com.kovisoft.logger.loggerImpl.LogManagerImpl;
-import com.kovisoft.logger.loggerImpl.LoggerImpl;
 
 import java.io.IOException;
 
@@ -16,13 +17,19 @@ public class LoggerFactory {
         getLogManager().stopRunning();
     }
 
+    /**
+     * Sets the number of shared writer threads and how they wait, call before creating any logger.
+     */
+    public static void configureWriters(int threads, WaitStrategy strategy){
+        getLogManager().configureWriters(threads, strategy);
+    }
+
     public static Logger createLogger(String outputDir, String shortName) throws IOException {
         LogManager lm = getLogManager();
         if(lm.doesLoggerExist(shortName)) return lm.getLogger(shortName);
 
         LoggerConfig loggerConfig = new LoggerConfig(outputDir, shortName);
-        Logger logger = new LoggerImpl(loggerConfig);
-        return lm.addLogger(logger);
+        return lm.createLogger(loggerConfig);
     }
 
     public static Logger createLogger(String outputDir, String shortName, int daysToLog) throws IOException {
@@ -30,8 +37,25 @@ public class LoggerFactory {
         if(lm.doesLoggerExist(shortName)) return lm.getLogger(shortName);
 
         LoggerConfig loggerConfig = new LoggerConfig(outputDir, shortName, daysToLog);
-        Logger logger = new LoggerImpl(loggerConfig);
-        return lm.addLogger(logger);
+        return lm.createLogger(loggerConfig);
+    }
+
+    public static Logger createLogger(String outputDir, String shortName, OutputType outputType) throws IOException {
+        LogManager lm = getLogManager();
+        if(lm.doesLoggerExist(shortName)) return lm.getLogger(shortName);
+
+        LoggerConfig loggerConfig = new LoggerConfig(outputDir, shortName).setOutputType(outputType);
+        return lm.createLogger(loggerConfig);
+    }
+
+    /**
+     * Creates a logger from a fully customised config, returns the existing one if the short name is taken.
+     */
+    public static Logger createLogger(LoggerConfig loggerConfig) throws IOException {
+        LogManager lm = getLogManager();
+        if(lm.doesLoggerExist(loggerConfig.getShortName())) return lm.getLogger(loggerConfig.getShortName());
+
+        return lm.createLogger(loggerConfig);
     }
 
     public static Logger createStaticLogger(String outputDir, String shortName) {
@@ -40,8 +64,7 @@ public class LoggerFactory {
 
         LoggerConfig loggerConfig = new LoggerConfig(outputDir, shortName);
         try{
-            Logger logger = new LoggerImpl(loggerConfig);
-            return lm.addLogger(logger);
+            return lm.createLogger(loggerConfig);
         } catch (Exception e){
             throw new RuntimeException("The cost of static logger is a potential crash! You are now paying that price!", e);
         }
@@ -53,8 +76,7 @@ public class LoggerFactory {
 
         LoggerConfig loggerConfig = new LoggerConfig(outputDir, shortName, daysToLog);
         try{
-            Logger logger = new LoggerImpl(loggerConfig);
-            return lm.addLogger(logger);
+            return lm.createLogger(loggerConfig);
         } catch (Exception e){
             throw new RuntimeException("The cost of static logger is a potential crash! You are now paying that price!", e);
         }
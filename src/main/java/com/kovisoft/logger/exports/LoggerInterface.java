@@ -2,6 +2,8 @@ package com.kovisoft.logger.exports;
 
 
 import java.io.File;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 public interface LoggerInterface {
 
@@ -18,7 +20,53 @@ public interface LoggerInterface {
     void log(String logMessage, Exception e);
     void info(String logMessage);
     void info(String logMessage, Exception e);
+    void error(String pattern, Object arg);
+    void error(String pattern, Object arg1, Object arg2);
+    void error(String pattern, Object arg1, Object arg2, Object arg3);
+    void error(String pattern, Object... args);
+    void error(Supplier<String> messageSupplier);
+    void except(String pattern, Object arg);
+    void except(String pattern, Object arg1, Object arg2);
+    void except(String pattern, Object arg1, Object arg2, Object arg3);
+    void except(String pattern, Object... args);
+    void except(Supplier<String> messageSupplier);
+    void warn(String pattern, Object arg);
+    void warn(String pattern, Object arg1, Object arg2);
+    void warn(String pattern, Object arg1, Object arg2, Object arg3);
+    void warn(String pattern, Object... args);
+    void warn(Supplier<String> messageSupplier);
+    void log(String pattern, Object arg);
+    void log(String pattern, Object arg1, Object arg2);
+    void log(String pattern, Object arg1, Object arg2, Object arg3);
+    void log(String pattern, Object... args);
+    void log(Supplier<String> messageSupplier);
+    void info(String pattern, Object arg);
+    void info(String pattern, Object arg1, Object arg2);
+    void info(String pattern, Object arg1, Object arg2, Object arg3);
+    void info(String pattern, Object... args);
+    void info(Supplier<String> messageSupplier);
+    boolean isEnabled(LogLevel level);
+    boolean isErrorEnabled();
+    boolean isExceptEnabled();
+    boolean isWarnEnabled();
+    boolean isLogEnabled();
+    boolean isInfoEnabled();
+    /**
+     * Sets the least severe level that is still written, everything below it is dropped before any work is done.
+     */
+    void setLevel(LogLevel level);
+    LogLevel getLevel();
     boolean safeToClose();
+    /**
+     * Live queue, throughput, latency and drop figures for this logger.
+     */
+    LoggerMetrics getMetrics();
+    /**
+     * Completes once every event this thread logged before the call is on the storage device, not just in the
+     * page cache. Callers waiting at the same time share one sync. Completes exceptionally if the sync fails
+     * or the logger is closed.
+     */
+    CompletableFuture<Void> sync();
     boolean stopRunning() throws Exception;
     boolean needNewLog();
     String getShortName();
@@ -0,0 +1,45 @@
+package com.kovisoft.logger.exports;
+
+/**
+ * A live view of what a logger is doing, every getter reads the current value.
+ * Rates are per second over the last second or so, they fall back towards 0 while the logger is idle.
+ * Counters and rates are updated by the writer thread once per batch, so they can trail the callers
+ * by one batch.
+ */
+public interface LoggerMetrics {
+
+    String getShortName();
+
+    /** Events queued and not yet written. */
+    int getQueueDepth();
+    int getQueueCapacity();
+    /** The deepest the queue has been when the writer started a batch. */
+    int getQueueHighWaterMark();
+
+    long getEventsWritten();
+    long getBytesWritten();
+    double getEventsPerSecond();
+    double getBytesPerSecond();
+
+    long getFlushCount();
+    long getFlushNanosTotal();
+    long getFlushNanosMax();
+
+    /** Events the OverflowPolicy dropped because the queue was full. */
+    long getDroppedEvents();
+    /** Events the RateLimitPolicy limits turned away. */
+    long getRateLimitedEvents();
+    /** Repeats the duplicate window kept out of the file, they are summarised instead. */
+    long getSuppressedDuplicates();
+
+    /** Time from the call to the event being written, from a histogram accurate to about 6%. */
+    long getLatencyNanosP50();
+    long getLatencyNanosP99();
+    long getLatencyNanosP999();
+    long getLatencyNanosMax();
+    /** Clears the latency histogram, for measuring from a known point. */
+    void resetLatency();
+
+    /** The share of time the writer thread serving this logger spent writing, between 0 and 1. */
+    double getWriterUtilization();
+}
@@ -0,0 +1,7 @@
+package com.kovisoft.logger.exports;
+
+/**
+ * Registered by the LogManager as com.kovisoft.logger:type=Logger,name=shortName for every logger it creates.
+ */
+public interface LoggerMetricsMXBean extends LoggerMetrics {
+}
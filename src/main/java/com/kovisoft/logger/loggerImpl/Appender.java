@@ -0,0 +1,198 @@
+package com.kovisoft.logger.loggerImpl;
+
+import com.kovisoft.logger.config.AppenderConfig;
+import com.kovisoft.logger.config.OverflowPolicy;
+import com.kovisoft.logger.config.Sink;
+import com.kovisoft.logger.exports.LogLevel;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * One extra destination of a logger, with its own bounded queue and platform thread. The logger's writer offers
+ * each line it has encoded, this thread hands them to the sink and flushes it whenever it has caught up.
+ * After a sink fails it is left alone for a second, lines arriving meanwhile are dropped and counted.
+ */
+final class Appender implements Runnable {
+
+    private static final long RETRY_MILLIS = 1000;
+    private static final long POLL_MILLIS = 100;
+
+    private final String name;
+    private final Sink sink;
+    private final LogLevel level;
+    private final OverflowPolicy overflowPolicy;
+    private final long blockTimeoutMillis;
+    private final ArrayBlockingQueue<byte[]> queue;
+    private final LongAdder dropped = new LongAdder();
+    private final Runnable onDrop;
+    private final Thread thread;
+    private volatile boolean closing = false;
+    // Set once close has given up waiting, whatever is still queued is dropped.
+    private volatile boolean abandoned = false;
+    // Writer thread only, how many drops the logger has already reported.
+    long reportedDrops = 0;
+    // Appender thread only.
+    private boolean failing = false;
+    private long retryAtMillis = 0;
+
+    /**
+     * @param onDrop Called whenever a line is dropped, lets the logger know there is a summary to write.
+     */
+    Appender(String loggerName, AppenderConfig config, Runnable onDrop){
+        this.name = config.getName();
+        this.sink = createSink(config);
+        this.level = config.getLevel();
+        this.overflowPolicy = config.getOverflowPolicy();
+        this.blockTimeoutMillis = config.getBlockTimeoutMillis();
+        this.queue = new ArrayBlockingQueue<>(config.getQueueCapacity());
+        this.onDrop = onDrop;
+        String threadName = "Logger-" + loggerName + "-" + name;
+        this.thread = Thread.ofPlatform().name(threadName).daemon().start(this);
+    }
+
+    private static Sink createSink(AppenderConfig config){
+        return switch(config.getType()){
+            case CONSOLE -> new ConsoleSink();
+            case TCP -> new TcpSink(config.getHost(), config.getPort());
+            case UDP -> new UdpSink(config.getHost(), config.getPort());
+            case CUSTOM -> config.getSink();
+        };
+    }
+
+    boolean accepts(LogLevel level){
+        return level.ordinal() <= this.level.ordinal();
+    }
+
+    /**
+     * Writer thread only. Queues the line, or applies the overflow policy when the queue is full.
+     */
+    void offer(byte[] line){
+        switch(overflowPolicy){
+            case DROP_OLDEST -> {
+                while(!queue.offer(line)){
+                    if(queue.poll() != null) drop();
+                }
+            }
+            case BLOCK_TIMEOUT -> {
+                try{
+                    if(!queue.offer(line, blockTimeoutMillis, TimeUnit.MILLISECONDS)) drop();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    drop();
+                }
+            }
+            default -> {
+                if(!queue.offer(line)) drop();
+            }
+        }
+    }
+
+    private void drop(){
+        dropped.increment();
+        onDrop.run();
+    }
+
+    @Override
+    public void run(){
+        try{
+            List<byte[]> batch = new ArrayList<>();
+            while(!abandoned){
+                byte[] first;
+                try{
+                    first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    break;
+                }
+                if(first == null){
+                    if(closing) break;
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch);
+                for(byte[] line : batch){
+                    if(abandoned) drop();
+                    else write(line);
+                }
+                batch.clear();
+                if(queue.isEmpty()) flush();
+            }
+        } finally {
+            // Given up on, what is still queued is never written.
+            if(abandoned){
+                while(queue.poll() != null) drop();
+            }
+            // Closed by this thread on its way out, so the sink is never closed under a write.
+            closeSink();
+        }
+    }
+
+    private void closeSink(){
+        try{
+            sink.close();
+        } catch (IOException | RuntimeException e) {
+            System.out.println("Failed to close appender " + name + "! " + e.getMessage());
+        }
+    }
+
+    private void write(byte[] line){
+        if(failing && System.currentTimeMillis() < retryAtMillis){
+            drop();
+            return;
+        }
+        try{
+            sink.write(line);
+            failing = false;
+        } catch (IOException | RuntimeException e) {
+            failed(e);
+            drop();
+        }
+    }
+
+    private void flush(){
+        if(failing) return;
+        try{
+            sink.flush();
+        } catch (IOException | RuntimeException e) {
+            failed(e);
+        }
+    }
+
+    private void failed(Exception e){
+        if(!failing) System.out.println("Appender " + name + " failed, dropping its lines for now. " + e.getMessage());
+        failing = true;
+        retryAtMillis = System.currentTimeMillis() + RETRY_MILLIS;
+    }
+
+    String name(){
+        return name;
+    }
+
+    /**
+     * Every line dropped so far, whether the queue was full or the sink was failing.
+     */
+    long dropped(){
+        return dropped.sum();
+    }
+
+    /**
+     * Lets the thread write what is queued. Past the timeout the thread is interrupted and drops the rest,
+     * it closes the sink as it exits.
+     * @return True if the queue was drained within the timeout.
+     */
+    boolean close(long timeoutMillis) throws InterruptedException {
+        closing = true;
+        thread.join(timeoutMillis);
+        boolean drained = !thread.isAlive();
+        if(!drained){
+            abandoned = true;
+            thread.interrupt();
+            thread.join(timeoutMillis);
+        }
+        return drained;
+    }
+}
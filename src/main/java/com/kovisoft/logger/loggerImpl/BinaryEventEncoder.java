@@ -0,0 +1,137 @@
+package com.kovisoft.logger.loggerImpl;
+
+import com.kovisoft.logger.reader.BinaryFormat;
+
+import java.nio.ByteBuffer;
+import java.time.ZoneId;
+import java.util.HashMap;
+
+/**
+ * Writes events in the layout described by BinaryFormat. Stack frames are interned per file,
+ * a repeated trace costs one varint per frame instead of the frame's text. The Caused by: and
+ * Suppressed: lines of a trace are interned the same way. Writer thread only.
+ */
+final class BinaryEventEncoder extends EventEncoder {
+
+    // Beyond this many distinct frames the table starts over, the reader simply takes the new definitions.
+    private static final int MAX_FRAMES = 1 << 16;
+
+    private final HashMap<String, Integer> frameIds = new HashMap<>();
+    private long lastNanos = 0;
+
+    BinaryEventEncoder(int initialCapacity, ZoneId zone, StackTraceCache traces){
+        super(initialCapacity, zone, traces, false);
+    }
+
+    @Override
+    ByteBuffer encode(LogEvent event){
+        buffer.clear();
+        String[] frames = event.throwable != null ? traces.get(event.throwable).lines : null;
+        if(frames != null){
+            if(frameIds.size() + frames.length > MAX_FRAMES) frameIds.clear();
+            for(String frame : frames){
+                if(!frameIds.containsKey(frame)) defineFrame(frame);
+            }
+        }
+        ensure(1 + 10 + 1);
+        buffer.put(frames != null ? BinaryFormat.EXCEPTION : BinaryFormat.EVENT);
+        putVarLong(zigZag(event.epochNanos - lastNanos));
+        lastNanos = event.epochNanos;
+        buffer.put((byte) event.level.ordinal());
+        int start = startString();
+        putMessage(event);
+        endString(start);
+        if(frames != null){
+            start = startString();
+            putUtf8(event.throwable.getMessage());
+            endString(start);
+            putVarLong(frames.length);
+            for(String frame : frames){
+                putVarLong(frameIds.get(frame));
+            }
+        }
+        ensure(1);
+        buffer.put(BinaryFormat.END);
+        return buffer.flip();
+    }
+
+    @Override
+    ByteBuffer encodeHeader(){
+        buffer.clear();
+        put(BinaryFormat.MAGIC);
+        ensure(1);
+        buffer.put(BinaryFormat.VERSION);
+        return buffer.flip();
+    }
+
+    /**
+     * The timestamp base and frame table of what is already in the file are gone, a repeated header
+     * tells the reader to start over from here.
+     */
+    @Override
+    ByteBuffer encodeResume(){
+        return encodeHeader();
+    }
+
+    /**
+     * Every file stands alone, so the timestamp base and the frame table start over.
+     */
+    @Override
+    void reset(){
+        super.reset();
+        lastNanos = 0;
+        frameIds.clear();
+    }
+
+    private void defineFrame(String frame){
+        int id = frameIds.size();
+        frameIds.put(frame, id);
+        ensure(1);
+        buffer.put(BinaryFormat.FRAME);
+        putVarLong(id);
+        int start = startString();
+        putUtf8(frame);
+        endString(start);
+        ensure(1);
+        buffer.put(BinaryFormat.END);
+    }
+
+    // The length is only known once the string is written, so room for the longest varint is left
+    // in front of it and the bytes are moved down when the length turns out shorter.
+    private int startString(){
+        ensure(5);
+        int start = buffer.position();
+        buffer.position(start + 5);
+        return start;
+    }
+
+    private void endString(int start){
+        int end = buffer.position();
+        int length = end - start - 5;
+        buffer.position(start);
+        // Fits in the 5 bytes left for it, so no ensure which could grow the buffer and lose the string.
+        while((length & ~0x7F) != 0){
+            buffer.put((byte) ((length & 0x7F) | 0x80));
+            length >>>= 7;
+        }
+        buffer.put((byte) length);
+        int to = buffer.position();
+        for(int from = start + 5; from < end; from++){
+            buffer.put(to++, buffer.get(from));
+        }
+        buffer.position(to);
+    }
+
+    private void putVarLong(long value){
+        ensure(10);
+        while((value & ~0x7FL) != 0){
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private static long zigZag(long value){
+        return (value << 1) ^ (value >> 63);
+    }
+}
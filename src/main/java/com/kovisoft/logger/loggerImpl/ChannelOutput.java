@@ -0,0 +1,66 @@
+package com.kovisoft.logger.loggerImpl;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Collects encoded lines in a direct ByteBuffer and appends them with FileChannel.write,
+ * so there is no Writer, charset encoder or heap copy between the encoder and the file.
+ */
+final class ChannelOutput implements LogOutput {
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private long size;
+
+    ChannelOutput(File logFile, int bufferSize) throws IOException {
+        this.channel = FileChannel.open(logFile.toPath(), StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        this.buffer = ByteBuffer.allocateDirect(bufferSize);
+        this.size = channel.size();
+    }
+
+    @Override
+    public void write(ByteBuffer bytes) throws IOException {
+        size += bytes.remaining();
+        if(bytes.remaining() > buffer.remaining()) drain();
+        if(bytes.remaining() > buffer.capacity()){
+            while(bytes.hasRemaining()) channel.write(bytes);
+            return;
+        }
+        buffer.put(bytes);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        drain();
+    }
+
+    @Override
+    public void force() throws IOException {
+        drain();
+        channel.force(false);
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        while(buffer.hasRemaining()) channel.write(buffer);
+        buffer.clear();
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try{
+            drain();
+        } finally {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.kovisoft.logger.loggerImpl;
+
+import com.kovisoft.logger.config.Sink;
+
+import java.io.BufferedOutputStream;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes to the process's standard output directly, bypassing System.out and its lock.
+ */
+final class ConsoleSink implements Sink {
+
+    private final OutputStream out = new BufferedOutputStream(new FileOutputStream(FileDescriptor.out), 64 * 1024);
+
+    @Override
+    public void write(byte[] line) throws IOException {
+        out.write(line);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    /**
+     * Standard output belongs to the process, it is only flushed.
+     */
+    @Override
+    public void close() throws IOException {
+        out.flush();
+    }
+}
@@ -0,0 +1,61 @@
+package com.kovisoft.logger.loggerImpl;
+
+import com.kovisoft.logger.exports.Fields;
+import com.kovisoft.logger.exports.LogMethods;
+
+import java.util.function.Supplier;
+
+/**
+ * Swapped into a Logger's level field while that level is disabled,
+ * so a disabled call is a single virtual call that does nothing.
+ */
+final class DisabledMethods implements LogMethods {
+
+    static final DisabledMethods INSTANCE = new DisabledMethods();
+
+    private DisabledMethods(){}
+
+    @Override
+    public void log(String logMessage) {
+    }
+
+    @Override
+    public void log(String logMessage, Exception e) {
+    }
+
+    @Override
+    public void log(String pattern, Object arg) {
+    }
+
+    @Override
+    public void log(String pattern, Object arg1, Object arg2) {
+    }
+
+    @Override
+    public void log(String pattern, Object arg1, Object arg2, Object arg3) {
+    }
+
+    @Override
+    public void log(String pattern, Object... args) {
+    }
+
+    @Override
+    public void log(Supplier<String> messageSupplier) {
+    }
+
+    @Override
+    public void log(Fields fields, String logMessage) {
+    }
+
+    @Override
+    public void log(Fields fields, String logMessage, Exception e) {
+    }
+
+    @Override
+    public void log(Fields fields, String pattern, Object arg) {
+    }
+
+    @Override
+    public void log(Fields fields, String pattern, Object arg1, Object arg2) {
+    }
+}
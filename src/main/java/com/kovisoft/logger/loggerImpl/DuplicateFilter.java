@@ -0,0 +1,159 @@
+package com.kovisoft.logger.loggerImpl;
+
+import com.kovisoft.logger.exports.Fields;
+import com.kovisoft.logger.exports.LogLevel;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * Spots the same message logged again within a window. Each message hashes to one slot of a small table,
+ * the slot holds the message last seen there and how often it repeated since. Callers only read the slot
+ * and bump its counter, a slot is replaced once its window is over. The writer sweeps the table and writes
+ * a "(repeated N times)" line for every finished window with repeats.
+ * Two different messages sharing a slot within the same window are simply both written.
+ */
+final class DuplicateFilter {
+
+    static final int ADMIT = 0;
+    static final int REPEAT = 1;
+    /** Admitted, and the entry it replaced still has repeats waiting to be written. */
+    static final int RETIRED = 2;
+
+    private static final int SLOTS = 256;
+    private static final long CLOSED = -1;
+
+    private final long windowNanos;
+    private final AtomicReferenceArray<Entry> table = new AtomicReferenceArray<>(SLOTS);
+    private final ConcurrentLinkedQueue<Entry> retired = new ConcurrentLinkedQueue<>();
+    private final LongAdder suppressed = new LongAdder();
+
+    static final class Entry {
+        final LogLevel level;
+        final Fields fields;
+        final String message;
+        final Class<?> thrown;
+        final int argCount;
+        final Object arg1;
+        final Object arg2;
+        final Object arg3;
+        final Object[] args;
+        final long windowEnd;
+        // Repeats after the first, CLOSED once the writer has taken the count.
+        private final AtomicLong repeats = new AtomicLong();
+        // The count taken by the caller that replaced the entry, read by the writer off the retired queue.
+        private long retiredRepeats;
+
+        private Entry(LogLevel level, Fields fields, String message, Throwable throwable, int argCount,
+                      Object arg1, Object arg2, Object arg3, Object[] args, long windowEnd){
+            this.level = level;
+            this.fields = fields;
+            this.message = message;
+            this.thrown = throwable == null ? null : throwable.getClass();
+            this.argCount = argCount;
+            this.arg1 = arg1;
+            this.arg2 = arg2;
+            this.arg3 = arg3;
+            this.args = args;
+            this.windowEnd = windowEnd;
+        }
+
+        private boolean matches(LogLevel level, Fields fields, String message, Throwable throwable, int argCount,
+                                Object arg1, Object arg2, Object arg3, Object[] args){
+            return this.level == level && this.argCount == argCount && Objects.equals(this.fields, fields)
+                    && (this.message == message || this.message.equals(message))
+                    && thrown == (throwable == null ? null : throwable.getClass())
+                    && Objects.equals(this.arg1, arg1) && Objects.equals(this.arg2, arg2)
+                    && Objects.equals(this.arg3, arg3) && Arrays.equals(this.args, args);
+        }
+
+        private boolean addRepeat(){
+            long current;
+            do{
+                current = repeats.get();
+                if(current == CLOSED) return false;
+            } while(!repeats.compareAndSet(current, current + 1));
+            return true;
+        }
+    }
+
+    DuplicateFilter(long windowMillis){
+        this.windowNanos = windowMillis * 1_000_000L;
+    }
+
+    /**
+     * Caller thread.
+     * @param now System.nanoTime() of the call.
+     * @return ADMIT, REPEAT if the event should be dropped, or RETIRED.
+     */
+    int check(long now, LogLevel level, Fields fields, String message, Throwable throwable, int argCount,
+              Object arg1, Object arg2, Object arg3, Object[] args){
+        int hash = message.hashCode() * 31 + level.ordinal();
+        if(argCount > 0){
+            // Same pattern with different arguments goes to different slots, so alternating values don't evict each other.
+            // By hand, Objects.hash would allocate its varargs array on every call.
+            hash = ((hash * 31 + Objects.hashCode(arg1)) * 31 + Objects.hashCode(arg2)) * 31 + Objects.hashCode(arg3);
+            if(args != null) hash = hash * 31 + Arrays.hashCode(args);
+        }
+        if(fields != null) hash = hash * 31 + fields.hashCode();
+        int slot = (hash ^ (hash >>> 16)) & (SLOTS - 1);
+        Entry current = table.get(slot);
+        if(current != null && current.windowEnd - now > 0){
+            if(!current.matches(level, fields, message, throwable, argCount, arg1, arg2, arg3, args)) return ADMIT;
+            if(!current.addRepeat()) return ADMIT;
+            suppressed.increment();
+            return REPEAT;
+        }
+        Entry fresh = new Entry(level, fields, message, throwable, argCount, arg1, arg2, arg3, args, now + windowNanos);
+        if(!table.compareAndSet(slot, current, fresh)) return ADMIT;
+        if(current != null){
+            // Closed before deciding, a caller that still saw it live can no longer add a repeat nobody writes.
+            long repeats = current.repeats.getAndSet(CLOSED);
+            if(repeats > 0){
+                current.retiredRepeats = repeats;
+                retired.add(current);
+                return RETIRED;
+            }
+        }
+        return ADMIT;
+    }
+
+    /**
+     * Every repeat kept out of the file since the filter was created.
+     */
+    long suppressed(){
+        return suppressed.sum();
+    }
+
+    /**
+     * Writer thread. Hands every finished window with repeats to the consumer, all of them when force is set.
+     * @return True if some window still has repeats that will need writing later.
+     */
+    boolean sweep(long now, boolean force, ObjLongConsumer<Entry> repeated){
+        Entry entry;
+        while((entry = retired.poll()) != null){
+            repeated.accept(entry, entry.retiredRepeats);
+        }
+        boolean open = false;
+        for(int i = 0; i < SLOTS; i++){
+            entry = table.get(i);
+            if(entry == null) continue;
+            if(force || entry.windowEnd - now <= 0){
+                close(entry, repeated);
+            } else if(entry.repeats.get() > 0){
+                open = true;
+            }
+        }
+        return open;
+    }
+
+    private static void close(Entry entry, ObjLongConsumer<Entry> repeated){
+        long repeats = entry.repeats.getAndSet(CLOSED);
+        if(repeats > 0) repeated.accept(entry, repeats);
+    }
+}
@@ -0,0 +1,243 @@
+package com.kovisoft.logger.loggerImpl;
+
+import com.kovisoft.logger.exports.Fields;
+import com.kovisoft.logger.exports.LogLevel;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneId;
+import java.util.Locale;
+
+import static com.kovisoft.logger.loggerImpl.LoggerImpl.COLUMN_DELIMITER;
+import static com.kovisoft.logger.loggerImpl.LoggerImpl.LINE_DELIMITER;
+
+/**
+ * Renders a LogEvent as a delimited row of UTF-8 bytes straight into a reusable direct ByteBuffer.
+ * Digits, labels, delimiters and message characters are written byte by byte, so once the buffer
+ * has grown to fit the largest line, encoding an event allocates nothing. Writer thread only.
+ */
+class EventEncoder {
+
+    static final byte[] NEW_LINE = System.lineSeparator().getBytes(StandardCharsets.UTF_8);
+    private static final byte[] COLUMN = COLUMN_DELIMITER.getBytes(StandardCharsets.UTF_8);
+    private static final byte[] LINE = LINE_DELIMITER.getBytes(StandardCharsets.UTF_8);
+    private static final byte[][] LEVELS = new byte[LogLevel.values().length][];
+    private static final String NULL = "null";
+
+    static {
+        for(LogLevel level : LogLevel.values()){
+            LEVELS[level.ordinal()] = level.getLabel().getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    final TimestampCache timestamps;
+    final StackTraceCache traces;
+    private final boolean references;
+    // Bumped for every new file, a referenced trace is written in full once per file.
+    private int generation = 0;
+    ByteBuffer buffer;
+
+    EventEncoder(int initialCapacity, ZoneId zone, StackTraceCache traces, boolean references){
+        buffer = ByteBuffer.allocateDirect(initialCapacity);
+        timestamps = new TimestampCache(zone);
+        this.traces = traces;
+        this.references = references;
+    }
+
+    /**
+     * @return The encoded line including the line separator, ready to be read. Valid until the next call.
+     */
+    ByteBuffer encode(LogEvent event){
+        buffer.clear();
+        if(event.formatted != null){
+            putUtf8(event.formatted);
+        } else {
+            ensure(TimestampCache.maxLength() + 2 * COLUMN.length);
+            timestamps.put(event.epochNanos, buffer, COLUMN);
+            put(LEVELS[event.level.ordinal()]);
+            put(COLUMN);
+            putMessage(event);
+            put(COLUMN);
+            if(event.throwable != null){
+                putUtf8(event.throwable.getMessage());
+                put(COLUMN);
+                putStackTrace(event.throwable);
+            } else {
+                put(COLUMN);
+            }
+        }
+        put(NEW_LINE);
+        return buffer.flip();
+    }
+
+    /**
+     * The first bytes of a new file.
+     */
+    ByteBuffer encodeHeader(){
+        return encodeLine(LoggerImpl.LOG_HEADER);
+    }
+
+    /**
+     * Written in place of the header when the writer appends to a file that already holds data.
+     * Empty unless the encoding carries state from one record to the next.
+     */
+    ByteBuffer encodeResume(){
+        buffer.clear();
+        return buffer.flip();
+    }
+
+    /**
+     * Called whenever the writer opens a file, before anything is written to it.
+     */
+    void reset(){
+        generation++;
+    }
+
+    /**
+     * Encodes a plain line such as the header.
+     */
+    ByteBuffer encodeLine(String line){
+        buffer.clear();
+        putUtf8(line);
+        put(NEW_LINE);
+        return buffer.flip();
+    }
+
+    /**
+     * The message column, the message followed by its fields as " key=value" pairs. Values are quoted
+     * when they are empty or hold whitespace, quotes, backslashes or '='.
+     */
+    void putMessage(LogEvent event){
+        putMessageText(event);
+        if(event.fields == null) return;
+        Fields fields = event.fields;
+        for(int i = 0; i < fields.size(); i++){
+            ensure(1);
+            buffer.put((byte) ' ');
+            putUtf8(fields.key(i));
+            ensure(1);
+            buffer.put((byte) '=');
+            putFieldValue(LogEvent.argToString(fields.value(i)));
+        }
+    }
+
+    private void putFieldValue(String value){
+        if(!LogFormatter.needsQuotes(value)){
+            putUtf8(value);
+            return;
+        }
+        ensure(1);
+        buffer.put((byte) '"');
+        int start = 0;
+        for(int i = 0; i < value.length(); i++){
+            char c = value.charAt(i);
+            if(c != '"' && c != '\\' && c != '\n' && c != '\r') continue;
+            putUtf8(value, start, i);
+            ensure(2);
+            buffer.put((byte) '\\');
+            buffer.put((byte) (c == '\n' ? 'n' : c == '\r' ? 'r' : c));
+            start = i + 1;
+        }
+        putUtf8(value, start, value.length());
+        ensure(1);
+        buffer.put((byte) '"');
+    }
+
+    /**
+     * The message with its placeholders filled in, all of its text goes through putText.
+     */
+    void putMessageText(LogEvent event){
+        if(event.supplier != null){
+            putText(event.supplied());
+        } else if(event.hasPattern() && event.message != null){
+            String pattern = event.message;
+            int start = 0;
+            for(int i = 0; i < event.argCount; i++){
+                int placeholder = pattern.indexOf("{}", start);
+                if(placeholder < 0) break;
+                putText(pattern, start, placeholder);
+                putText(LogEvent.argToString(event.arg(i)));
+                start = placeholder + 2;
+            }
+            putText(pattern, start, pattern.length());
+        } else {
+            putText(event.message);
+        }
+        if(event.repeats > 0) putText(String.format(Locale.ROOT, " (repeated %,d times)", event.repeats));
+    }
+
+    void putText(String s){
+        if(s == null) s = NULL;
+        putText(s, 0, s.length());
+    }
+
+    /**
+     * Text that came from the caller, written as it is here. Formats that need it escaped override this.
+     */
+    void putText(String s, int from, int end){
+        putUtf8(s, from, end);
+    }
+
+    private void putStackTrace(Throwable throwable){
+        StackTraceCache.Trace trace = traces.get(throwable);
+        if(references){
+            if(trace.writtenGeneration == generation){
+                put(trace.reference);
+                return;
+            }
+            trace.writtenGeneration = generation;
+            put(trace.header);
+            if(trace.lines.length > 0) put(LINE);
+        }
+        put(trace.utf8);
+    }
+
+    void put(byte[] bytes){
+        ensure(bytes.length);
+        buffer.put(bytes);
+    }
+
+    void putUtf8(String s){
+        if(s == null) s = NULL;
+        putUtf8(s, 0, s.length());
+    }
+
+    void putUtf8(String s, int from, int end){
+        ensure((end - from) * 3);
+        for(int i = from; i < end; i++){
+            char c = s.charAt(i);
+            if(c < 0x80){
+                buffer.put((byte) c);
+            } else if(c < 0x800){
+                buffer.put((byte) (0xC0 | (c >> 6)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            } else if(Character.isSurrogate(c)){
+                if(Character.isHighSurrogate(c) && i + 1 < end && Character.isLowSurrogate(s.charAt(i + 1))){
+                    int codePoint = Character.toCodePoint(c, s.charAt(++i));
+                    buffer.put((byte) (0xF0 | (codePoint >> 18)));
+                    buffer.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+                    buffer.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+                    buffer.put((byte) (0x80 | (codePoint & 0x3F)));
+                } else {
+                    buffer.put((byte) '?');
+                }
+            } else {
+                buffer.put((byte) (0xE0 | (c >> 12)));
+                buffer.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+    }
+
+    /**
+     * Grows the buffer when a line does not fit, after warm up this never triggers.
+     */
+    void ensure(int bytes){
+        if(buffer.remaining() >= bytes) return;
+        int capacity = Math.max(buffer.capacity() * 2, buffer.position() + bytes);
+        ByteBuffer grown = ByteBuffer.allocateDirect(capacity);
+        buffer.flip();
+        grown.put(buffer);
+        buffer = grown;
+    }
+}
@@ -0,0 +1,193 @@
+package com.kovisoft.logger.loggerImpl;
+
+import com.kovisoft.logger.exports.Fields;
+import com.kovisoft.logger.exports.LogLevel;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneId;
+
+/**
+ * Writes each event as one JSON object on its own line:
+ * {"time":"2024-03-01T09:15:02.5-05:00","level":"ERROR","message":"...","fields":{...},"exception":{...}}
+ * fields and exception are left out when the event has none. Field values that are numbers or booleans
+ * are written as such, everything else as a string. Escaping is done while copying into the buffer and
+ * a stack trace is escaped once and reused, so like the text encoder nothing is allocated per event.
+ * Writer thread only.
+ */
+final class JsonEventEncoder extends EventEncoder {
+
+    private static final byte[] TIME = ascii("{\"time\":\"");
+    private static final byte[] LEVEL = ascii("\",\"level\":\"");
+    private static final byte[] MESSAGE = ascii("\",\"message\":\"");
+    private static final byte[] FIELDS = ascii(",\"fields\":{");
+    private static final byte[] EXCEPTION = ascii(",\"exception\":{\"class\":\"");
+    private static final byte[] EXCEPTION_MESSAGE = ascii("\",\"message\":");
+    private static final byte[] STACK_TRACE = ascii(",\"stackTrace\":");
+    private static final byte[] NULL = ascii("null");
+    private static final byte[] END = ascii("}\n");
+    private static final byte[] HEX = ascii("0123456789abcdef");
+    private static final byte[][] LEVELS = new byte[LogLevel.values().length][];
+
+    static {
+        for(LogLevel level : LogLevel.values()){
+            LEVELS[level.ordinal()] = ascii(level.name());
+        }
+    }
+
+    JsonEventEncoder(int initialCapacity, ZoneId zone, StackTraceCache traces){
+        super(initialCapacity, zone, traces, false);
+    }
+
+    private static byte[] ascii(String s){
+        return s.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    @Override
+    ByteBuffer encode(LogEvent event){
+        buffer.clear();
+        ensure(TIME.length + TimestampCache.maxLength());
+        buffer.put(TIME);
+        timestamps.putIso(event.epochNanos, buffer);
+        put(LEVEL);
+        put(LEVELS[event.level.ordinal()]);
+        put(MESSAGE);
+        putMessageText(event);
+        putByte('"');
+        if(event.fields != null) putFields(event.fields);
+        if(event.throwable != null) putException(event.throwable);
+        // JSON Lines wants \n whatever the platform.
+        put(END);
+        return buffer.flip();
+    }
+
+    /**
+     * JSON Lines files have no header.
+     */
+    @Override
+    ByteBuffer encodeHeader(){
+        buffer.clear();
+        return buffer.flip();
+    }
+
+    @Override
+    void putText(String s, int from, int end){
+        int start = from;
+        for(int i = from; i < end; i++){
+            char c = s.charAt(i);
+            if(c >= 0x20 && c != '"' && c != '\\') continue;
+            putUtf8(s, start, i);
+            putEscaped(c);
+            start = i + 1;
+        }
+        putUtf8(s, start, end);
+    }
+
+    private void putEscaped(char c){
+        ensure(6);
+        buffer.put((byte) '\\');
+        switch(c){
+            case '"', '\\' -> buffer.put((byte) c);
+            case '\n' -> buffer.put((byte) 'n');
+            case '\r' -> buffer.put((byte) 'r');
+            case '\t' -> buffer.put((byte) 't');
+            case '\b' -> buffer.put((byte) 'b');
+            case '\f' -> buffer.put((byte) 'f');
+            default -> {
+                buffer.put((byte) 'u');
+                buffer.put((byte) '0');
+                buffer.put((byte) '0');
+                buffer.put(HEX[c >> 4]);
+                buffer.put(HEX[c & 0xF]);
+            }
+        }
+    }
+
+    private void putString(String s){
+        putByte('"');
+        putText(s);
+        putByte('"');
+    }
+
+    private void putFields(Fields fields){
+        put(FIELDS);
+        for(int i = 0; i < fields.size(); i++){
+            if(i > 0) putByte(',');
+            putString(fields.key(i));
+            putByte(':');
+            putValue(fields.value(i));
+        }
+        putByte('}');
+    }
+
+    private void putValue(Object value){
+        if(value == null){
+            put(NULL);
+        } else if(value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte){
+            putLong(((Number) value).longValue());
+        } else if(value instanceof Boolean b){
+            putUtf8(b ? "true" : "false");
+        } else if(value instanceof BigInteger || value instanceof BigDecimal
+                || value instanceof Double d && Double.isFinite(d) || value instanceof Float f && Float.isFinite(f)){
+            putUtf8(value.toString());
+        } else {
+            // NaN and Infinity have no JSON number, they end up here as strings along with everything else.
+            putString(LogEvent.argToString(value));
+        }
+    }
+
+    private void putLong(long value){
+        if(value == Long.MIN_VALUE){
+            putUtf8(Long.toString(value));
+            return;
+        }
+        ensure(20);
+        if(value < 0){
+            buffer.put((byte) '-');
+            value = -value;
+        }
+        int digits = 1;
+        for(long rest = value / 10; rest > 0; rest /= 10){
+            digits++;
+        }
+        int end = buffer.position() + digits;
+        for(int i = end - 1; i >= end - digits; i--){
+            buffer.put(i, (byte) ('0' + value % 10));
+            value /= 10;
+        }
+        buffer.position(end);
+    }
+
+    private void putException(Throwable throwable){
+        put(EXCEPTION);
+        putText(throwable.getClass().getName());
+        put(EXCEPTION_MESSAGE);
+        String message = throwable.getMessage();
+        if(message == null) put(NULL);
+        else putString(message);
+        put(STACK_TRACE);
+        StackTraceCache.Trace trace = traces.get(throwable);
+        if(trace.json == null){
+            int start = buffer.position();
+            putByte('[');
+            for(int i = 0; i < trace.lines.length; i++){
+                if(i > 0) putByte(',');
+                putString(trace.lines[i]);
+            }
+            putByte(']');
+            byte[] json = new byte[buffer.position() - start];
+            buffer.get(start, json);
+            trace.json = json;
+        } else {
+            put(trace.json);
+        }
+        putByte('}');
+    }
+
+    private void putByte(char c){
+        ensure(1);
+        buffer.put((byte) c);
+    }
+}
@@ -0,0 +1,88 @@
+package com.kovisoft.logger.loggerImpl;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A log linear histogram in the style of HdrHistogram: every power of two is split into 16 buckets,
+ * so a value is known to within 1/16 of itself, from nanoseconds up to Long.MAX_VALUE in under 1000 counters.
+ * Recorded by one thread without locks or allocation, readable from any.
+ */
+final class LatencyHistogram {
+
+    private static final int SUB_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int BUCKETS = (64 - SUB_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private volatile long max = 0;
+
+    /**
+     * Recording thread only.
+     */
+    void record(long value){
+        if(value < 0) value = 0;
+        int index = index(value);
+        // Single writer, an ordered store is enough to publish the count.
+        counts.lazySet(index, counts.get(index) + 1);
+        if(value > max) max = value;
+    }
+
+    static int index(long value){
+        if(value < SUB_BUCKETS) return (int) value;
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
+    }
+
+    /**
+     * The highest value that lands in the bucket.
+     */
+    static long highestValue(int index){
+        if(index < SUB_BUCKETS) return index;
+        int shift = index / SUB_BUCKETS - 1;
+        long lowest = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+
+    /**
+     * @param percentile 0 to 100.
+     * @return The value at or below which that share of the recorded values lie, 0 if nothing was recorded.
+     */
+    long valueAt(double percentile){
+        long[] snapshot = new long[BUCKETS];
+        long total = 0;
+        for(int i = 0; i < BUCKETS; i++){
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        if(total == 0) return 0;
+        long target = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+        long seen = 0;
+        for(int i = 0; i < BUCKETS; i++){
+            seen += snapshot[i];
+            if(seen >= target) return Math.min(highestValue(i), max);
+        }
+        return max;
+    }
+
+    long count(){
+        long total = 0;
+        for(int i = 0; i < BUCKETS; i++){
+            total += counts.get(i);
+        }
+        return total;
+    }
+
+    long max(){
+        return max;
+    }
+
+    /**
+     * Can race with the recording thread, a value recorded meanwhile may survive or be lost.
+     */
+    void reset(){
+        for(int i = 0; i < BUCKETS; i++){
+            counts.set(i, 0);
+        }
+        max = 0;
+    }
+}
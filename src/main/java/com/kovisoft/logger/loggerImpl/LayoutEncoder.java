@@ -0,0 +1,43 @@
+package com.kovisoft.logger.loggerImpl;
+
+import com.kovisoft.logger.config.Layout;
+
+import java.nio.ByteBuffer;
+import java.time.ZoneId;
+
+/**
+ * Hands events to a user supplied Layout and encodes the line it builds. Writer thread only.
+ */
+final class LayoutEncoder extends EventEncoder {
+
+    private final Layout layout;
+    private final StringBuilder line = new StringBuilder(256);
+
+    LayoutEncoder(int initialCapacity, ZoneId zone, StackTraceCache traces, Layout layout){
+        super(initialCapacity, zone, traces, false);
+        this.layout = layout;
+    }
+
+    /**
+     * A failing layout must not take the writer down with it, so its failure is logged instead.
+     */
+    @Override
+    ByteBuffer encode(LogEvent event){
+        line.setLength(0);
+        try{
+            layout.format(event, line);
+        } catch (RuntimeException e){
+            line.setLength(0);
+            line.append("[Layout failed: ").append(e).append(']');
+        }
+        return encodeLine(line.toString());
+    }
+
+    @Override
+    ByteBuffer encodeHeader(){
+        String header = layout.header();
+        if(header != null) return encodeLine(header);
+        buffer.clear();
+        return buffer.flip();
+    }
+}
@@ -0,0 +1,114 @@
+package com.kovisoft.logger.loggerImpl;
+
+import com.kovisoft.logger.config.RollingPolicy;
+import com.kovisoft.logger.reader.IndexFormat;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compresses rolled files and applies the retention policy on a single low priority daemon thread,
+ * so neither the writers nor the callers ever wait on the disk work.
+ */
+final class LogArchiver {
+
+    private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "Logger-archiver");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+
+    private LogArchiver(){}
+
+    /**
+     * Compresses and prunes every file belonging to the logger apart from the one being written.
+     */
+    static Future<?> tidy(LoggerImpl logger, RollingPolicy policy){
+        return EXECUTOR.submit(() -> {
+            try{
+                tidyNow(logger, policy);
+            } catch (IOException | RuntimeException e) {
+                System.out.println("Failed to tidy rolled log files! " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Waits for everything submitted so far.
+     */
+    static void awaitIdle() throws InterruptedException {
+        try{
+            EXECUTOR.submit(() -> {}).get();
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    /**
+     * Matches shortName + date, optionally -HH and .index, then .log or .log.gz.
+     */
+    static Pattern rolledFiles(String shortName){
+        return Pattern.compile(Pattern.quote(shortName) + "\\d{4}-\\d{2}-\\d{2}(-\\d{2})?(\\.\\d+)?\\.log(\\.gz)?");
+    }
+
+    private static void tidyNow(LoggerImpl logger, RollingPolicy policy) throws IOException {
+        List<File> rolled = new ArrayList<>();
+        for(File file : logger.closedFiles()){
+            if(policy.isCompress() && file.getName().endsWith(".log")) file = compress(file);
+            rolled.add(file);
+        }
+        if(!policy.hasRetention()) return;
+
+        // Newest first, the file being written always counts as kept.
+        rolled.sort(Comparator.comparingLong(File::lastModified).reversed());
+        long cutoff = policy.getMaxAgeMillis() > 0 ? System.currentTimeMillis() - policy.getMaxAgeMillis() : Long.MIN_VALUE;
+        int kept = 1;
+        long total = logger.getFile().length();
+        boolean full = false;
+        for(File file : rolled){
+            long length = file.length();
+            full |= (policy.getMaxFiles() > 0 && kept >= policy.getMaxFiles())
+                    || (policy.getMaxTotalBytes() > 0 && total + length > policy.getMaxTotalBytes());
+            if(!full && file.lastModified() >= cutoff){
+                kept++;
+                total += length;
+            } else if(!file.delete()){
+                System.out.println("Could not delete old log file " + file);
+            } else {
+                Files.deleteIfExists(IndexFormat.indexFileFor(file.toPath()));
+            }
+        }
+    }
+
+    /**
+     * Gzips into a temporary file first so a crash never leaves a truncated .gz behind the original.
+     */
+    private static File compress(File file) throws IOException {
+        File compressed = new File(file.getParentFile(), file.getName() + ".gz");
+        File temp = new File(file.getParentFile(), file.getName() + ".gz.tmp");
+        try(InputStream in = Files.newInputStream(file.toPath());
+            OutputStream out = new GZIPOutputStream(Files.newOutputStream(temp.toPath()), 64 * 1024)){
+            in.transferTo(out);
+        }
+        Files.move(temp.toPath(), compressed.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        compressed.setLastModified(file.lastModified());
+        Files.delete(file.toPath());
+        // The offsets mean nothing in the compressed file.
+        Files.deleteIfExists(IndexFormat.indexFileFor(file.toPath()));
+        return compressed;
+    }
+}
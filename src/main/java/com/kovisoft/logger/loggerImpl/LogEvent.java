@@ -0,0 +1,158 @@
+package com.kovisoft.logger.loggerImpl;
+
+import com.kovisoft.logger.config.LayoutEvent;
+import com.kovisoft.logger.exports.Fields;
+import com.kovisoft.logger.exports.LogLevel;
+
+import java.time.Instant;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+/**
+ * The raw data captured on the callers thread. Everything that is expensive to build
+ * (timestamps, column joining, stack traces) is left for the writer thread.
+ * If deferred formatting is turned off the finished line is stored in formatted instead.
+ * Instances live in the RingBuffer and are reused, so they must not escape the writer.
+ */
+final class LogEvent implements LayoutEvent {
+    long epochNanos;
+    LogLevel level;
+    String message;
+    Throwable throwable;
+    String formatted;
+
+    // With argCount > 0 the message is a pattern, the arguments are in arg1 to arg3 or in args.
+    int argCount;
+    Object arg1;
+    Object arg2;
+    Object arg3;
+    Object[] args;
+    Supplier<String> supplier;
+    Fields fields;
+    // Set on the summary line the writer writes for suppressed duplicates.
+    long repeats;
+    // System.nanoTime() when the event was published, the writer measures latency against it.
+    long enqueuedNanos;
+
+    void set(long epochNanos, LogLevel level, String message, Throwable throwable){
+        this.epochNanos = epochNanos;
+        this.level = level;
+        this.message = message;
+        this.throwable = throwable;
+    }
+
+    void setArgs(int argCount, Object arg1, Object arg2, Object arg3, Object[] args){
+        this.argCount = argCount;
+        this.arg1 = arg1;
+        this.arg2 = arg2;
+        this.arg3 = arg3;
+        this.args = args;
+    }
+
+    void copyFrom(LogEvent other){
+        set(other.epochNanos, other.level, other.message, other.throwable);
+        setArgs(other.argCount, other.arg1, other.arg2, other.arg3, other.args);
+        formatted = other.formatted;
+        supplier = other.supplier;
+        fields = other.fields;
+        repeats = other.repeats;
+        enqueuedNanos = other.enqueuedNanos;
+    }
+
+    void clear(){
+        level = null;
+        message = null;
+        throwable = null;
+        formatted = null;
+        argCount = 0;
+        arg1 = null;
+        arg2 = null;
+        arg3 = null;
+        args = null;
+        supplier = null;
+        fields = null;
+        repeats = 0;
+    }
+
+    boolean hasPattern(){
+        return argCount > 0;
+    }
+
+    Object arg(int index){
+        if(args != null) return args[index];
+        return switch(index){
+            case 0 -> arg1;
+            case 1 -> arg2;
+            default -> arg3;
+        };
+    }
+
+    /**
+     * The message text for events that did not come with a plain message, calls the supplier if there is one.
+     * A failing supplier must not take the writer down with it, so its failure is logged instead.
+     */
+    String supplied(){
+        try{
+            return supplier.get();
+        } catch (RuntimeException e){
+            return "[Message supplier failed: " + e + "]";
+        }
+    }
+
+    static String argToString(Object arg){
+        try{
+            return String.valueOf(arg);
+        } catch (RuntimeException e){
+            return "[toString failed: " + e + "]";
+        }
+    }
+
+    /**
+     * Builds the message as a String, for the caller thread formatter.
+     * The writer side encoder fills the placeholders in straight into its buffer instead.
+     */
+    String renderMessage(){
+        if(supplier != null) return supplied();
+        if(!hasPattern() || message == null) return message;
+        StringBuilder sb = new StringBuilder(message.length() + 16 * argCount);
+        int start = 0;
+        for(int i = 0; i < argCount; i++){
+            int placeholder = message.indexOf("{}", start);
+            if(placeholder < 0) break;
+            sb.append(message, start, placeholder).append(argToString(arg(i)));
+            start = placeholder + 2;
+        }
+        return sb.append(message, start, message.length()).toString();
+    }
+
+    @Override
+    public long getEpochNanos(){
+        return epochNanos;
+    }
+
+    @Override
+    public LogLevel getLevel(){
+        return level;
+    }
+
+    @Override
+    public String getMessage(){
+        String rendered = renderMessage();
+        return repeats > 0 ? rendered + String.format(Locale.ROOT, " (repeated %,d times)", repeats) : rendered;
+    }
+
+    @Override
+    public Throwable getThrowable(){
+        return throwable;
+    }
+
+    @Override
+    public Fields getFields(){
+        return fields;
+    }
+
+    static long nowNanos(){
+        Instant now = Instant.now();
+        return now.getEpochSecond() * 1_000_000_000L + now.getNano();
+    }
+}
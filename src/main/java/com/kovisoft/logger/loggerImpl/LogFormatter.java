@@ -0,0 +1,74 @@
+package com.kovisoft.logger.loggerImpl;
+
+import com.kovisoft.logger.exports.Fields;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import static com.kovisoft.logger.loggerImpl.LoggerImpl.COLUMN_DELIMITER;
+
+/**
+ * Turns a LogEvent into the delimited row described by LoggerImpl.LOG and LoggerImpl.EXCEPTION.
+ * Builds the row directly instead of going through String.format.
+ */
+final class LogFormatter {
+
+    private final ZoneId zone;
+    private final StackTraceCache traces;
+
+    LogFormatter(ZoneId zone, StackTraceCache traces){
+        this.zone = zone;
+        this.traces = traces;
+    }
+
+    String format(LogEvent event){
+        StringBuilder sb = new StringBuilder(256);
+        LocalDateTime timeStamp = LocalDateTime.ofInstant(Instant.ofEpochSecond(0, event.epochNanos), zone);
+        sb.append(timeStamp.toLocalTime()).append(COLUMN_DELIMITER)
+                .append(timeStamp.toLocalDate()).append(COLUMN_DELIMITER)
+                .append(event.level.getLabel()).append(COLUMN_DELIMITER)
+                .append(event.renderMessage());
+        if(event.fields != null) appendFields(sb, event.fields);
+        sb.append(COLUMN_DELIMITER);
+        if(event.throwable != null){
+            sb.append(event.throwable.getMessage()).append(COLUMN_DELIMITER)
+                    .append(traces.get(event.throwable).text);
+        } else {
+            sb.append(COLUMN_DELIMITER);
+        }
+        return sb.toString();
+    }
+
+    // The same " key=value" pairs EventEncoder.putMessage writes.
+    private static void appendFields(StringBuilder sb, Fields fields){
+        for(int i = 0; i < fields.size(); i++){
+            sb.append(' ').append(fields.key(i)).append('=');
+            String value = LogEvent.argToString(fields.value(i));
+            if(!needsQuotes(value)){
+                sb.append(value);
+                continue;
+            }
+            sb.append('"');
+            for(int j = 0; j < value.length(); j++){
+                char c = value.charAt(j);
+                switch(c){
+                    case '"', '\\' -> sb.append('\\').append(c);
+                    case '\n' -> sb.append("\\n");
+                    case '\r' -> sb.append("\\r");
+                    default -> sb.append(c);
+                }
+            }
+            sb.append('"');
+        }
+    }
+
+    static boolean needsQuotes(String value){
+        if(value.isEmpty()) return true;
+        for(int i = 0; i < value.length(); i++){
+            char c = value.charAt(i);
+            if(c == ' ' || c == '"' || c == '=' || c == '\\' || c == '\n' || c == '\r' || c == '\t') return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,97 @@
+package com.kovisoft.logger.loggerImpl;
+
+import com.kovisoft.logger.exports.LogLevel;
+import com.kovisoft.logger.reader.IndexFormat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Builds the sparse sidecar index described by IndexFormat while the writer writes the log file.
+ * Events are gathered into blocks, a block ends once it holds blockBytes or the next event falls into a
+ * different time bucket, and its entry is queued. Entries only go to disk when the log itself is flushed,
+ * so the index never points past what the log file holds. Writer thread only.
+ */
+final class LogIndex {
+
+    private final FileChannel channel;
+    private final ByteBuffer pending = ByteBuffer.allocate(IndexFormat.ENTRY_BYTES * 128);
+    private final long blockBytes;
+    private final long bucketNanos;
+
+    private long blockStart = -1;
+    private long blockEnd;
+    private long bucket;
+    private long minNanos;
+    private long maxNanos;
+    private int count;
+    private int levels;
+
+    /**
+     * @param headerBytes The length of the header if it was just written to a new log file, 0 otherwise.
+     */
+    LogIndex(File logFile, long headerBytes, long blockBytes, long bucketNanos) throws IOException {
+        this.channel = FileChannel.open(IndexFormat.indexFileFor(logFile.toPath()),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        this.blockBytes = blockBytes;
+        this.bucketNanos = bucketNanos;
+        if(channel.size() == 0){
+            pending.put(IndexFormat.MAGIC).put(IndexFormat.VERSION);
+            // Covered by an entry without levels, so no query ever reads it.
+            if(headerBytes > 0) pending.putLong(0).putLong(headerBytes).putLong(Long.MAX_VALUE).putLong(Long.MIN_VALUE).putInt(0).putInt(0);
+        }
+    }
+
+    /**
+     * Called for every event right after its bytes were written at offset.
+     */
+    void add(long offset, int bytes, long epochNanos, LogLevel level) throws IOException {
+        long eventBucket = Math.floorDiv(epochNanos, bucketNanos);
+        if(blockStart >= 0 && (offset != blockEnd || blockEnd - blockStart >= blockBytes || eventBucket != bucket)){
+            endBlock();
+        }
+        if(blockStart < 0){
+            blockStart = offset;
+            bucket = eventBucket;
+            minNanos = epochNanos;
+            maxNanos = epochNanos;
+        }
+        blockEnd = offset + bytes;
+        minNanos = Math.min(minNanos, epochNanos);
+        maxNanos = Math.max(maxNanos, epochNanos);
+        count++;
+        levels |= 1 << level.ordinal();
+    }
+
+    private void endBlock() throws IOException {
+        if(pending.remaining() < IndexFormat.ENTRY_BYTES) flush();
+        pending.putLong(blockStart).putLong(blockEnd).putLong(minNanos).putLong(maxNanos).putInt(count).putInt(levels);
+        blockStart = -1;
+        count = 0;
+        levels = 0;
+    }
+
+    /**
+     * Writes the entries of finished blocks, called after the log file was flushed.
+     */
+    void flush() throws IOException {
+        pending.flip();
+        while(pending.hasRemaining()) channel.write(pending);
+        pending.clear();
+    }
+
+    /**
+     * Ends the block being built and writes everything, the log file must already be closed or flushed.
+     */
+    void close() throws IOException {
+        try{
+            if(blockStart >= 0) endBlock();
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+}
@@ -1,27 +1,101 @@
 package com.kovisoft.logger.loggerImpl;
 
 import com.kovisoft.logger.config.LoggerConfig;
+import com.kovisoft.logger.config.WaitStrategy;
+import com.kovisoft.logger.exports.LogLevel;
 import com.kovisoft.logger.exports.LogManager;
+import com.kovisoft.logger.exports.LogManagerMetrics;
 import com.kovisoft.logger.exports.Logger;
+import com.kovisoft.logger.exports.LoggerMetrics;
+import com.kovisoft.logger.exports.LoggerMetricsMXBean;
 
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
 import java.io.IOException;
-import java.util.HashMap;
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
 
 public class LogManagerImpl implements LogManager, AutoCloseable {
 
-    protected final HashMap<String, Logger> activeLoggers;
-    protected static LogManagerImpl lm;
+    protected final ConcurrentHashMap<String, Logger> activeLoggers;
+    // Exactly the names callers asked for, ".log" and all, so repeat lookups skip the normalising.
+    private final ConcurrentHashMap<String, Logger> lookupCache;
+    // Loggers being built, callers asking for the same name meanwhile wait on the first one's build.
+    private final ConcurrentHashMap<String, CompletableFuture<Logger>> creating = new ConcurrentHashMap<>();
+
+    private static final String WRITER_THREADS_PROPERTY = "kovisoft.logger.writerThreads";
+    private static final String WAIT_STRATEGY_PROPERTY = "kovisoft.logger.waitStrategy";
+    private static final String JMX_DOMAIN = "com.kovisoft.logger";
+    private final LogManagerMetricsImpl metrics = new LogManagerMetricsImpl(this);
+    // Shutting the pool down waits for its threads, a lock rather than a monitor keeps virtual callers unpinned meanwhile.
+    private final ReentrantLock writersLock = new ReentrantLock();
+    private WriterPool writerPool;
+    private int writerThreads = Integer.getInteger(WRITER_THREADS_PROPERTY, Runtime.getRuntime().availableProcessors());
+    private WaitStrategy waitStrategy = WaitStrategy.valueOf(
+            System.getProperty(WAIT_STRATEGY_PROPERTY, WaitStrategy.BLOCKING.name()));
+
+    // Initialised on first use by the class loader, which also safely publishes it to every thread.
+    private static final class Holder {
+        private static final LogManagerImpl INSTANCE = new LogManagerImpl();
+    }
 
     public static LogManager getInstance(){
-        if(lm == null){
-            lm = new LogManagerImpl();
-        }
-        return lm;
+        return Holder.INSTANCE;
     }
 
     private LogManagerImpl(){
-        activeLoggers = new HashMap<>();
+        activeLoggers = new ConcurrentHashMap<>();
+        lookupCache = new ConcurrentHashMap<>();
+        // Writer threads are daemons, this makes sure queued events still reach the files on a normal exit.
+        Runtime.getRuntime().addShutdownHook(new Thread(this::stopRunning, "Logger-shutdown"));
+        register(objectName("type=LogManager"), metrics);
+    }
+
+    /**
+     * The writers every non dedicated logger is attached to, started on first use.
+     */
+    static WriterPool sharedWriters(){
+        return Holder.INSTANCE.getWriterPool();
+    }
+
+    WriterPool getWriterPool(){
+        writersLock.lock();
+        try{
+            if(writerPool == null || !writerPool.isRunning()){
+                writerPool = new WriterPool(writerThreads, waitStrategy);
+            }
+            return writerPool;
+        } finally {
+            writersLock.unlock();
+        }
+    }
+
+    /**
+     * Sizes the shared writer pool, must be called before the first logger is created.
+     * Defaults to the core count and BLOCKING, or the kovisoft.logger.writerThreads
+     * and kovisoft.logger.waitStrategy system properties when set.
+     */
+    @Override
+    public void configureWriters(int threads, WaitStrategy strategy){
+        writersLock.lock();
+        try{
+            if(writerPool != null && writerPool.isRunning()){
+                throw new IllegalStateException("Writer threads must be configured before the first logger is created.");
+            }
+            writerThreads = Math.max(1, threads);
+            waitStrategy = strategy;
+        } finally {
+            writersLock.unlock();
+        }
     }
 
     @Override
@@ -35,73 +109,132 @@ public class LogManagerImpl implements LogManager, AutoCloseable {
     }
 
     /**
-     * Cannot initialize new Logger if none exists, can initialize one
-     * if the existing logger has expired.
+     * Creates and registers a logger for the config unless one is already registered under its short name.
+     * Safe to call from many threads at once, only one logger is ever built per name.
+     */
+    @Override
+    public Logger createLogger(LoggerConfig config) throws IOException {
+        String name = config.getShortName();
+        Logger logger = activeLoggers.get(name);
+        if(logger == null){
+            // Built outside the map, opening files and starting threads must not hold up its other keys.
+            CompletableFuture<Logger> build = new CompletableFuture<>();
+            CompletableFuture<Logger> building = creating.putIfAbsent(name, build);
+            logger = building == null ? build(name, config, build) : awaitBuild(building);
+        }
+        activeLoggers.putIfAbsent(pathKey(logger), logger);
+        register(logger);
+        return logger;
+    }
+
+    private Logger build(String name, LoggerConfig config, CompletableFuture<Logger> build) throws IOException {
+        try{
+            // An earlier build may have finished between the lookup and claiming the name.
+            Logger logger = activeLoggers.get(name);
+            if(logger == null){
+                logger = new LoggerImpl(config);
+                Logger added = activeLoggers.putIfAbsent(name, logger);
+                if(added != null){
+                    // Added under the same name meanwhile, that one wins.
+                    stopQuietly(logger);
+                    logger = added;
+                }
+            }
+            build.complete(logger);
+            return logger;
+        } catch (IOException | RuntimeException e) {
+            build.completeExceptionally(e);
+            throw e;
+        } finally {
+            creating.remove(name, build);
+        }
+    }
+
+    private static void stopQuietly(Logger logger){
+        try{
+            logger.stopRunning();
+        } catch (Exception e){
+            System.out.printf("Logger %s could not be gracefully shutdown.%n", logger.getShortName());
+        }
+    }
+
+    private static Logger awaitBuild(CompletableFuture<Logger> building) throws IOException {
+        try{
+            return building.join();
+        } catch (CompletionException e) {
+            if(e.getCause() instanceof IOException io) throw io;
+            if(e.getCause() instanceof RuntimeException runtime) throw runtime;
+            throw e;
+        }
+    }
+
+    /**
+     * Cannot initialize new Logger if none exists. Expired loggers are not replaced here,
+     * their writer rolls them over to the next file.
      * @param shortName The short name (file name without extension)
-     * @return The existing logger or the refreshed Logger.
+     * @return The existing logger or null.
      */
     public Logger getLogger(String shortName) {
-        if(shortName.endsWith(".log")) shortName = shortName.substring(0, shortName.length()-4);
-        Logger logger = activeLoggers.get(shortName);
+        Logger logger = lookupCache.get(shortName);
+        if(logger != null) return logger;
+        String key = stripExtension(shortName);
+        logger = activeLoggers.get(key);
         if(logger == null){ return null;}
-        if(logger.needNewLog()){
-            LoggerConfig config = new LoggerConfig(logger.getFile().getParent(), shortName, logger.getDaysToLog());
-            return tryReplaceLogger(logger, config);
-        } else {
-            return logger;
-        }
+        return cache(shortName, key, logger);
     }
 
     /**
      * Gets a logger or generates one if there is not one currently.
      * @param logPath The full path to the logger without ".log". (Date not necessary,
      *              it is handled internally.)
-     * @return Logger from path or a new instance if it was null or expired.
+     * @return Logger from path or null.
      */
     @Override
     public Logger getLoggerByPath(String logPath) {
-        if(logPath.endsWith(".log")) logPath = logPath.substring(0, logPath.length()-4);
-        Logger logger = activeLoggers.get(logPath);
+        Logger logger = lookupCache.get(logPath);
+        if(logger != null) return logger;
+        String key = stripExtension(logPath);
+        logger = activeLoggers.get(key);
         if(logger == null){ return null;}
-        if(logger.needNewLog()){
-            LoggerConfig config = new LoggerConfig(logPath, logger.getDaysToLog());
-            return tryReplaceLogger(logger, config);
-        } else {
-            return logger;
-        }
+        return cache(logPath, key, logger);
     }
 
-    private Logger tryReplaceLogger(Logger logger, LoggerConfig config) {
-        try{
-            logger = new LoggerImpl(config);
-        } catch (IOException e) {
-            System.out.println("Unable to instantiate new log this time, keep using old for now. " + e.getMessage());
-        }
-        removeLogger(logger);
-        return addLogger(logger);
+    private static String stripExtension(String name){
+        return name.endsWith(".log") ? name.substring(0, name.length()-4) : name;
+    }
+
+    private static String pathKey(Logger logger){
+        return logger.getFile().getParent() + "/" + logger.getShortName();
+    }
+
+    private Logger cache(String requested, String key, Logger logger){
+        lookupCache.put(requested, logger);
+        // A removal may have raced past us, never leave a logger cached that is no longer registered.
+        if(activeLoggers.get(key) != logger) lookupCache.remove(requested, logger);
+        return logger;
     }
 
     @Override
     public Logger addLogger(Logger logger) {
-        String directory = logger.getFile().getParent() + "/" + logger.getShortName();
-        activeLoggers.put(directory, logger);
-        activeLoggers.put(logger.getShortName(), logger);
+        Logger byPath = activeLoggers.put(pathKey(logger), logger);
+        Logger byName = activeLoggers.put(logger.getShortName(), logger);
+        // Lookups cached for the loggers this one replaced would keep handing them out.
+        if(byPath != null || byName != null){
+            lookupCache.values().removeIf(cached -> cached == byPath || cached == byName);
+        }
+        register(logger);
         return logger;
     }
 
     @Override
     public void removeLogger(Logger logger) {
-        String directory = logger.getFile().getParent() + "/" + logger.getShortName();
-        activeLoggers.remove(directory);
-        activeLoggers.remove(directory + ".log"); //doesn't hurt to check it.
-        activeLoggers.remove(logger.getShortName());
-        try{
-            logger.stopRunning();
-        } catch (Exception e){
-            System.out.printf("Logger %s could not be gracefully shutdown.%n", logger.getShortName());
-            logger = null;
-        }
-
+        String directory = pathKey(logger);
+        activeLoggers.remove(directory, logger);
+        activeLoggers.remove(directory + ".log", logger); //doesn't hurt to check it.
+        activeLoggers.remove(logger.getShortName(), logger);
+        lookupCache.values().removeIf(cached -> cached == logger);
+        unregister(logger);
+        stopQuietly(logger);
     }
 
     @Override
@@ -114,26 +247,137 @@ public class LogManagerImpl implements LogManager, AutoCloseable {
         removeLogger(activeLoggers.get(logPath));
     }
 
+    /**
+     * Changes the level of a running logger.
+     * @return False if no logger is registered under the name.
+     */
+    @Override
+    public boolean setLevel(String shortName, LogLevel level) {
+        Logger logger = activeLoggers.get(stripExtension(shortName));
+        if(logger == null) return false;
+        logger.setLevel(level);
+        return true;
+    }
+
+    @Override
+    public void setLevelForAll(LogLevel level) {
+        for(Logger logger : distinctLoggers()){
+            logger.setLevel(level);
+        }
+    }
+
+    @Override
+    public LogManagerMetrics getMetrics(){
+        return metrics;
+    }
+
+    @Override
+    public Map<String, LoggerMetrics> getLoggerMetrics(){
+        Map<String, LoggerMetrics> byName = new TreeMap<>();
+        for(Logger logger : distinctLoggers()){
+            byName.put(logger.getShortName(), logger.getMetrics());
+        }
+        return byName;
+    }
+
+    double[] writerUtilization(){
+        writersLock.lock();
+        try{
+            return writerPool == null ? new double[0] : writerPool.utilization();
+        } finally {
+            writersLock.unlock();
+        }
+    }
+
+    private static ObjectName objectName(String properties){
+        try{
+            return new ObjectName(JMX_DOMAIN + ":" + properties);
+        } catch (JMException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Loggers in different directories may share a short name, the directory keeps their beans apart.
+     */
+    private static ObjectName objectName(Logger logger){
+        return objectName("type=Logger,name=" + ObjectName.quote(logger.getShortName())
+                + ",directory=" + ObjectName.quote(logger.getFile().getParent()));
+    }
+
+    private void register(Logger logger){
+        if(logger.getMetrics() instanceof LoggerMetricsMXBean bean) register(objectName(logger), bean);
+    }
+
+    private synchronized void register(ObjectName name, Object bean){
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try{
+            // A logger created again under the same name replaces the old one.
+            if(server.isRegistered(name)) server.unregisterMBean(name);
+            server.registerMBean(bean, name);
+        } catch (JMException e) {
+            System.out.println("Could not register " + name + " with JMX. " + e.getMessage());
+        }
+    }
+
+    private synchronized void unregister(Logger logger){
+        ObjectName name = objectName(logger);
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try{
+            if(server.isRegistered(name)) server.unregisterMBean(name);
+        } catch (JMException e) {
+            System.out.println("Could not unregister " + name + " from JMX. " + e.getMessage());
+        }
+    }
+
     @Override
     public void stopRunning(){
-        for(Map.Entry<String, Logger> lEntry : activeLoggers.entrySet()){
+        for(Logger logger : distinctLoggers()){
+            unregister(logger);
             try{
-                lEntry.getValue().stopRunning();
+                logger.stopRunning();
             } catch (Exception e){
                 System.out.println("Exception thrown while attempting to stop logger." + e.getMessage());
-                lEntry = null;
             }
         }
+        activeLoggers.clear();
+        lookupCache.clear();
+        shutdownWriters();
     }
 
     @Override
     public void close() {
-        for(Map.Entry<String, Logger> lEntry : activeLoggers.entrySet()){
+        for(Logger logger : distinctLoggers()){
+            unregister(logger);
             try{
-                ((LoggerImpl)lEntry.getValue()).close();
+                ((LoggerImpl) logger).close();
             } catch (Exception e){
                 System.out.println("Exception thrown while attempting to close logger." + e.getMessage());
             }
         }
+        activeLoggers.clear();
+        lookupCache.clear();
+        shutdownWriters();
+    }
+
+    // Every logger is registered under both its short name and its path.
+    Set<Logger> distinctLoggers(){
+        Set<Logger> loggers = Collections.newSetFromMap(new IdentityHashMap<>());
+        loggers.addAll(activeLoggers.values());
+        return loggers;
+    }
+
+    private void shutdownWriters(){
+        writersLock.lock();
+        try{
+            if(writerPool == null) return;
+            if(!writerPool.shutdown(5000)) System.out.println("Writer threads did not stop within 5 seconds.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.out.println("Thread interrupted while stopping writer threads.");
+        } finally {
+            writerPool = null;
+            writersLock.unlock();
+        }
     }
 }
@@ -0,0 +1,69 @@
+package com.kovisoft.logger.loggerImpl;
+
+import com.kovisoft.logger.exports.LogManagerMetricsMXBean;
+import com.kovisoft.logger.exports.Logger;
+import com.kovisoft.logger.exports.LoggerMetrics;
+
+/**
+ * Sums the metrics of every logger the LogManager holds each time it is read.
+ */
+final class LogManagerMetricsImpl implements LogManagerMetricsMXBean {
+
+    private final LogManagerImpl manager;
+
+    LogManagerMetricsImpl(LogManagerImpl manager){
+        this.manager = manager;
+    }
+
+    @Override
+    public int getLoggerCount(){
+        return manager.distinctLoggers().size();
+    }
+
+    @Override
+    public int getWriterThreads(){
+        return getWriterUtilization().length;
+    }
+
+    @Override
+    public double[] getWriterUtilization(){
+        return manager.writerUtilization();
+    }
+
+    @Override
+    public int getQueueDepth(){
+        int depth = 0;
+        for(Logger logger : manager.distinctLoggers()){
+            depth += logger.getMetrics().getQueueDepth();
+        }
+        return depth;
+    }
+
+    @Override
+    public double getEventsPerSecond(){
+        double rate = 0;
+        for(Logger logger : manager.distinctLoggers()){
+            rate += logger.getMetrics().getEventsPerSecond();
+        }
+        return rate;
+    }
+
+    @Override
+    public double getBytesPerSecond(){
+        double rate = 0;
+        for(Logger logger : manager.distinctLoggers()){
+            rate += logger.getMetrics().getBytesPerSecond();
+        }
+        return rate;
+    }
+
+    @Override
+    public long getDroppedEvents(){
+        long dropped = 0;
+        for(Logger logger : manager.distinctLoggers()){
+            LoggerMetrics metrics = logger.getMetrics();
+            dropped += metrics.getDroppedEvents() + metrics.getRateLimitedEvents();
+        }
+        return dropped;
+    }
+}
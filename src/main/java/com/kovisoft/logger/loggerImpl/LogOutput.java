@@ -0,0 +1,25 @@
+package com.kovisoft.logger.loggerImpl;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Where the writer thread puts encoded lines. Only ever used from the writer thread,
+ * apart from close which is called once the writer has let go of the logger.
+ */
+interface LogOutput {
+
+    /** Writes the remaining bytes of the buffer, which already end with the line separator. */
+    void write(ByteBuffer bytes) throws IOException;
+
+    /** Hands everything written so far to the operating system. */
+    void flush() throws IOException;
+
+    /** Flushes and waits until everything written so far is on the storage device. */
+    void force() throws IOException;
+
+    /** The number of bytes of log data in the file, including unflushed writes. */
+    long size();
+
+    void close() throws IOException;
+}
@@ -0,0 +1,158 @@
+package com.kovisoft.logger.loggerImpl;
+
+import com.kovisoft.logger.config.WaitStrategy;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A thread that drains the ring buffers of one or more loggers. Rather than polling on a timer it
+ * drains whatever has been published and then idles according to its WaitStrategy,
+ * producers wake it through signal() when it is parked.
+ * A logger is only ever attached to one writer, which is what keeps each log file in order.
+ * Writers are always platform threads, even when the logger is created from a virtual thread,
+ * so the file I/O and the monitors around it never hold a carrier thread.
+ */
+final class LogWriter implements Runnable {
+
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELD_TRIES = 100;
+    private static final long SLEEP_NANOS = 100_000L;
+
+    private final CopyOnWriteArrayList<LoggerImpl> loggers = new CopyOnWriteArrayList<>();
+    private final WaitStrategy strategy;
+    private final boolean dedicated;
+    private final Thread thread;
+    private final AtomicBoolean sleeping = new AtomicBoolean(false);
+    private volatile boolean running = true;
+    // Nanos spent writing, its rate is the share of time the thread is busy.
+    private final Meter busy = new Meter();
+
+    /**
+     * @param dedicated A dedicated writer serves a single logger and exits once that logger detaches.
+     */
+    LogWriter(String name, WaitStrategy strategy, boolean dedicated){
+        this.strategy = strategy;
+        this.dedicated = dedicated;
+        this.thread = Thread.ofPlatform().name(name).daemon().start(this);
+    }
+
+    void attach(LoggerImpl logger){
+        loggers.add(logger);
+        wake();
+    }
+
+    int loggerCount(){
+        return loggers.size();
+    }
+
+    boolean isRunning(){
+        return running;
+    }
+
+    /**
+     * The share of the last second or so this thread spent writing, between 0 and 1.
+     */
+    double utilization(){
+        return Math.min(1, busy.rate() / 1e9);
+    }
+
+    /**
+     * Called by producers after publishing, only costs a volatile read unless the writer is parked.
+     */
+    void signal(){
+        if(sleeping.get() && sleeping.compareAndSet(true, false)){
+            LockSupport.unpark(thread);
+        }
+    }
+
+    /**
+     * Unconditional wake up, used for the rare state changes such as a logger asking to detach.
+     */
+    void wake(){
+        LockSupport.unpark(thread);
+    }
+
+    /**
+     * Lets the writer finish everything already queued for its loggers and waits for it to exit.
+     * @return True if the writer exited within the timeout.
+     */
+    boolean stop(long timeoutMillis) throws InterruptedException {
+        running = false;
+        wake();
+        if(Thread.currentThread() != thread) thread.join(timeoutMillis);
+        return !thread.isAlive();
+    }
+
+    @Override
+    public void run(){
+        int idleCount = 0;
+        while(true){
+            long start = System.nanoTime();
+            int written = 0;
+            for(LoggerImpl logger : loggers){
+                written += logger.writeLogs();
+            }
+            if(written > 0){
+                long now = System.nanoTime();
+                busy.add(now - start, now);
+                idleCount = 0;
+            }
+            // Every pass, so one busy logger cannot hold back another's flush deadline or detach.
+            for(LoggerImpl logger : loggers){
+                logger.writeDue();
+                if((logger.isClosing() || !running) && logger.isQueueEmpty()){
+                    loggers.remove(logger);
+                    logger.detached();
+                }
+            }
+            if(dedicated && loggers.isEmpty()) running = false;
+            if(!running && loggers.isEmpty()) break;
+            if(written == 0) idleCount = idle(idleCount);
+        }
+    }
+
+    private boolean hasWork(){
+        for(LoggerImpl logger : loggers){
+            if(!logger.isQueueEmpty() || logger.isClosing()) return true;
+        }
+        return false;
+    }
+
+    private long nanosUntilDue(){
+        long next = -1;
+        for(LoggerImpl logger : loggers){
+            long dueIn = logger.nanosUntilDue();
+            if(dueIn >= 0 && (next < 0 || dueIn < next)) next = dueIn;
+        }
+        return next;
+    }
+
+    private int idle(int idleCount){
+        switch(strategy){
+            case BUSY_SPIN -> Thread.onSpinWait();
+            case YIELDING -> {
+                if(idleCount < SPIN_TRIES) Thread.onSpinWait();
+                else Thread.yield();
+            }
+            case SLEEPING -> {
+                if(idleCount < SPIN_TRIES) Thread.onSpinWait();
+                else if(idleCount < SPIN_TRIES + YIELD_TRIES) Thread.yield();
+                else LockSupport.parkNanos(this, SLEEP_NANOS);
+            }
+            case BLOCKING -> {
+                // Flag first, then re-check, so a producer publishing in between always sees the flag and unparks us.
+                sleeping.set(true);
+                if(running && !hasWork()){
+                    long dueIn = nanosUntilDue();
+                    if(dueIn < 0) LockSupport.park(this);
+                    else if(dueIn > 0) LockSupport.parkNanos(this, dueIn);
+                }
+                sleeping.set(false);
+                return 0;
+            }
+        }
+        return Math.min(idleCount + 1, SPIN_TRIES + YIELD_TRIES);
+    }
+}
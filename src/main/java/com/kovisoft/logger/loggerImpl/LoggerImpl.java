@@ -1,13 +1,35 @@
 package com.kovisoft.logger.loggerImpl;
 
+import com.kovisoft.logger.config.AppenderConfig;
+import com.kovisoft.logger.config.FlushPolicy;
+import com.kovisoft.logger.config.Layout;
+import com.kovisoft.logger.config.LogFormat;
 import com.kovisoft.logger.config.LoggerConfig;
+import com.kovisoft.logger.config.RateLimitPolicy;
+import com.kovisoft.logger.config.RollInterval;
+import com.kovisoft.logger.config.RollingPolicy;
+import com.kovisoft.logger.exports.Fields;
+import com.kovisoft.logger.exports.LogLevel;
+import com.kovisoft.logger.exports.LogMethods;
 import com.kovisoft.logger.exports.Logger;
+import com.kovisoft.logger.exports.LoggerMetrics;
 
 import java.io.*;
-import java.nio.file.Files;
+import java.nio.ByteBuffer;
+import java.time.Clock;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.*;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.regex.Pattern;
+import java.util.function.Supplier;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 public class LoggerImpl extends Logger implements AutoCloseable {
 
@@ -21,59 +43,685 @@ public class LoggerImpl extends Logger implements AutoCloseable {
     protected static final String EXCEPTION = String.join(COLUMN_DELIMITER,
             List.of("%s","%s","%s","%s","%s","%s"));
 
-    protected final BlockingQueue<String> queue = new LinkedBlockingQueue<>();
+    protected final RingBuffer queue;
+    private final LogFormatter formatter;
+    private final EventEncoder encoder;
 
-    private final File logFile;
-    private final LocalDate date;
+    private final LoggerConfig config;
+    // Swapped by the writer thread on rollover.
+    private volatile File logFile;
+    private volatile LocalDate date;
+    private volatile long expiresAtMillis;
+    private final RollingPolicy rolling;
+    private final Clock clock;
+    // Writer thread only. hour is -1 unless rolling hourly.
+    private int hour;
+    private int fileIndex;
+    private long rollRetryAtMillis = 0;
+    // Held while switching files so the archiver never sees a file that is still open.
+    private final Object rollLock = new Object();
     private final String shortName;
     private final int daysToLog;
+    private final boolean deferredFormatting;
+    private final LogMethods[] levelMethods = new LogMethods[LogLevel.values().length];
+    private volatile LogLevel level;
 
-    private final ScheduledExecutorService loggerService;
+    private final LogWriter writer;
+    private final CountDownLatch detachedLatch = new CountDownLatch(1);
+    private volatile boolean closing = false;
+    private volatile boolean closed = false;
     private volatile boolean writingComplete = true;
-    private final BufferedWriter bw;
+    private LogOutput output;
+    // Null unless indexed, or after the index failed.
+    private LogIndex index;
+    private final boolean indexed;
+    // The length of the header openOutput just wrote, 0 if the file already had one.
+    private long headerBytes;
+    // Each with its own queue and thread, they get a copy of every line written to the file.
+    private final Appender[] appenders;
+    // Null unless the file refers back to stack traces, appenders are always sent them in full.
+    private final EventEncoder fullTraces;
+
+    private static final int MIN_BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_BUFFER_SIZE = 1 << 20;
+    private static final long ROLL_RETRY_MILLIS = 60_000;
+    private static final long SUMMARY_INTERVAL_NANOS = 1_000_000_000L;
+    private final FlushPolicy flushPolicy;
+    // Writer thread only.
+    private int unflushedEvents = 0;
+    private long unflushedBytes = 0;
+    private long firstUnflushedNanos = 0;
+
+    // Callers waiting in sync(), each done once consumed() has reached the sequences claimed before it asked.
+    private final Queue<SyncRequest> syncRequests = new ConcurrentLinkedQueue<>();
+    // Writer thread only. Set when a batch held an event at the sync level, or a force of a rolled file failed.
+    private boolean syncDue = false;
+    private IOException syncFailure = null;
+
+    private record SyncRequest(long upTo, CompletableFuture<Void> done){}
+
+    // Null when the RateLimitPolicy leaves them off.
+    private final DuplicateFilter duplicates;
+    private final RateLimiter limiter;
+    private final long summaryIntervalNanos;
+    // Set by callers when something was held back that the writer has to account for.
+    private volatile boolean summariesPending = false;
+    // Writer thread only.
+    private long nextSummaryNanos = 0;
+    private long reportedQueueDrops = 0;
+    private long reportedRateDrops = 0;
+    private final LogEvent summary = new LogEvent();
+
+    private final LoggerMetricsImpl metrics = new LoggerMetricsImpl(this);
+    // Writer thread only, what has been written since the metrics were last brought up to date.
+    private int unrecordedEvents = 0;
+    private long unrecordedBytes = 0;
 
     public LoggerImpl(LoggerConfig config) throws IOException {
-        this.date = config.getDate();
+        if(!config.getAppenders().isEmpty() && config.getFormat() == LogFormat.BINARY){
+            throw new IllegalArgumentException("Appenders need a self contained line per event, BINARY records depend on the file before them.");
+        }
+        this.config = config;
+        this.rolling = config.getRollingPolicy();
+        this.clock = config.getClock();
         this.daysToLog = config.getDaysToLog();
         this.shortName = config.getShortName();
-        logFile = config.getLogFile();
-        bw = new BufferedWriter(new FileWriter(logFile, true));
-        if(isEmptyFile()){
-            bw.write(LOG_HEADER);
-            bw.newLine();
+        this.deferredFormatting = config.isDeferredFormatting() || config.getFormat() != LogFormat.TEXT || config.getLayout() != null;
+        this.queue = new RingBuffer(config.getQueueCapacity(), config.getOverflowPolicy(),
+                config.getBlockTimeoutMillis() * 1_000_000L, config.getOverflowLevel(), config.getSampleRate(),
+                this::summaryPending);
+        StackTraceCache traces = new StackTraceCache(config.getStackTraceCacheSize());
+        this.formatter = new LogFormatter(config.getZone(), traces);
+        this.encoder = createEncoder(config, traces);
+        this.flushPolicy = config.getFlushPolicy();
+        RateLimitPolicy rateLimits = config.getRateLimitPolicy();
+        this.duplicates = rateLimits.getDuplicateWindowMillis() > 0 ? new DuplicateFilter(rateLimits.getDuplicateWindowMillis()) : null;
+        this.limiter = rateLimits.hasLimits() ? new RateLimiter(rateLimits) : null;
+        this.summaryIntervalNanos = Math.min(SUMMARY_INTERVAL_NANOS,
+                duplicates != null ? rateLimits.getDuplicateWindowMillis() * 1_000_000L : SUMMARY_INTERVAL_NANOS);
+        if(rolling.getInterval() == RollInterval.HOURLY){
+            LocalDateTime now = LocalDateTime.now(clock);
+            this.date = now.toLocalDate();
+            this.hour = now.getHour();
+            this.fileIndex = firstFreeIndex(date, hour, 0);
+            logFile = config.createLogFile(date, hour, fileIndex);
+            // The config always creates the daily file, drop it if it was never written to.
+            if(config.getLogFile().length() == 0) config.getLogFile().delete();
+        } else {
+            this.date = config.getDate();
+            this.hour = -1;
+            this.fileIndex = 0;
+            logFile = config.getLogFile();
+        }
+        this.expiresAtMillis = expiryOf(date, hour);
+        this.indexed = config.isIndexed() && config.getFormat() == LogFormat.TEXT && config.getLayout() == null;
+        output = openOutput(logFile);
+        index = openIndex(logFile);
+        if(rolling.isCompress() || rolling.hasRetention()) tidy();
+        List<AppenderConfig> appenderConfigs = config.getAppenders();
+        this.fullTraces = !appenderConfigs.isEmpty() && config.isStackTraceReferences()
+                && config.getFormat() == LogFormat.TEXT && config.getLayout() == null
+                ? new EventEncoder(4096, config.getZone(), traces, false) : null;
+        this.appenders = new Appender[appenderConfigs.size()];
+        for(int i = 0; i < appenders.length; i++){
+            appenders[i] = new Appender(shortName, appenderConfigs.get(i), this::summaryPending);
+        }
+        levelMethods[LogLevel.ERROR.ordinal()] = new Error(this);
+        levelMethods[LogLevel.EXCEPTION.ordinal()] = new Except(this);
+        levelMethods[LogLevel.WARN.ordinal()] = new Warn(this);
+        levelMethods[LogLevel.LOG.ordinal()] = new Log(this);
+        levelMethods[LogLevel.INFO.ordinal()] = new Info(this);
+        setLevel(config.getLevel());
+        if(config.isDedicatedWriter()){
+            writer = new LogWriter("Logger-" + shortName, config.getWaitStrategy(), true);
+            writer.attach(this);
+        } else {
+            writer = LogManagerImpl.sharedWriters().assign(this);
         }
-        loggerService = Executors.newScheduledThreadPool(1);
-        loggerService.scheduleWithFixedDelay(this::writeLogs, 5, 5, TimeUnit.MILLISECONDS);
-        this.error = new Error(this);
-        this.except = new Except(this);
-        this.log = new Log(this);
-        this.info = new Info(this);
-        this.warn = new Warn(this);
     }
 
 
-    private void writeLogs(){
+    /**
+     * Writes every event published so far as one batch, only ever called from the writer thread.
+     * The FlushPolicy decides whether the batch is flushed per event, at the end or left for later.
+     * @return The number of events written.
+     */
+    int writeLogs(){
         writingComplete = false;
-        while(!queue.isEmpty()){
+        if(queue.peek() != null){
+            metrics.queueDepth(queue.size());
+            if(clock.millis() >= expiresAtMillis) roll(true);
+        }
+        long maxFileBytes = rolling.getMaxFileBytes();
+        int written = 0;
+        LogEvent event;
+        while(written < queue.capacity() && (event = queue.peek()) != null){
+            written++;
+            if(maxFileBytes > 0 && output.size() >= maxFileBytes) roll(false);
             try{
-                String message = queue.poll(1, TimeUnit.MILLISECONDS);
-                if(message != null) {
-                    bw.write(message);
-                    bw.newLine();
+                if(write(event)){
+                    metrics.latency.record(System.nanoTime() - event.enqueuedNanos);
+                    if(flushPolicy.shouldFlush(event.level, unflushedEvents, unflushedBytes)) flush();
+                    if(flushPolicy.shouldSync(event.level)) syncDue = true;
                 }
-                bw.flush();
-            } catch (IOException | InterruptedException e) {
-                System.out.println("Failed to write to output!" + e.getMessage());
+            } finally {
+                queue.release();
             }
         }
+        if(summariesPending && System.nanoTime() - nextSummaryNanos >= 0) writeSummaries(false);
 
+        queue.wakeWaiting();
+        // Flush on empty, or the max millis deadline which has to be checked here as a busy queue never gets empty.
+        if(nanosUntilFlush() == 0) flush();
+        if(commitDue()) commit();
+        if(unrecordedEvents > 0) recordWritten();
         writingComplete = true;
+        return written;
+    }
+
+    private static EventEncoder createEncoder(LoggerConfig config, StackTraceCache traces){
+        Layout layout = config.getLayout();
+        if(layout != null) return new LayoutEncoder(4096, config.getZone(), traces, layout);
+        return switch(config.getFormat()){
+            case TEXT -> new EventEncoder(4096, config.getZone(), traces, config.isStackTraceReferences());
+            case BINARY -> new BinaryEventEncoder(4096, config.getZone(), traces);
+            case JSON -> new JsonEventEncoder(4096, config.getZone(), traces);
+        };
+    }
+
+    private void recordWritten(){
+        long now = System.nanoTime();
+        metrics.events.add(unrecordedEvents, now);
+        metrics.bytes.add(unrecordedBytes, now);
+        unrecordedEvents = 0;
+        unrecordedBytes = 0;
+    }
+
+    private boolean write(LogEvent event){
+        try{
+            ByteBuffer line = encoder.encode(event);
+            int bytes = line.remaining();
+            if(appenders.length > 0) fanOut(event, line);
+            long offset = output.size();
+            output.write(line);
+            if(index != null) addToIndex(offset, bytes, event);
+            unflushedBytes += bytes;
+            unrecordedBytes += bytes;
+            unrecordedEvents++;
+            if(unflushedEvents++ == 0) firstUnflushedNanos = System.nanoTime();
+            return true;
+        } catch (IOException e) {
+            System.out.println("Failed to write to output!" + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Copies the encoded line once and hands the same bytes to every appender that takes the level.
+     */
+    private void fanOut(LogEvent event, ByteBuffer line){
+        byte[] shared = null;
+        for(Appender appender : appenders){
+            if(!appender.accepts(event.level)) continue;
+            if(shared == null) shared = appenderLine(event, line);
+            appender.offer(shared);
+        }
+    }
+
+    /**
+     * The file's line, unless it may refer back to a stack trace earlier in the file that an appender
+     * filtered out or dropped, then the event is encoded again with its trace in full.
+     */
+    private byte[] appenderLine(LogEvent event, ByteBuffer line){
+        ByteBuffer source = fullTraces != null && event.throwable != null ? fullTraces.encode(event) : line;
+        byte[] bytes = new byte[source.remaining()];
+        source.get(source.position(), bytes);
+        return bytes;
+    }
+
+    /**
+     * Called by the writer after every pass, writes summaries and flushes when they are due.
+     */
+    void writeDue(){
+        if(summariesPending && System.nanoTime() - nextSummaryNanos >= 0) writeSummaries(false);
+        if(nanosUntilFlush() == 0) flush();
+        if(commitDue()) commit();
+    }
+
+    /**
+     * @return Nanos until the writer has something to do for this logger without being signalled, -1 if nothing.
+     */
+    long nanosUntilDue(){
+        if(commitDue()) return 0;
+        long flushIn = nanosUntilFlush();
+        if(!summariesPending) return flushIn;
+        long summaryIn = Math.max(0, nextSummaryNanos - System.nanoTime());
+        return flushIn < 0 ? summaryIn : Math.min(flushIn, summaryIn);
+    }
+
+    /**
+     * Writes the "(repeated N times)" lines of finished duplicate windows, how many events the
+     * rate limits dropped since the last summary and, once the queue has drained to half, how many
+     * the overflow policy dropped while it was full.
+     * @param force Also closes the windows still open and reports queue drops regardless, used when the logger is shutting down.
+     */
+    private void writeSummaries(boolean force){
+        long now = System.nanoTime();
+        summariesPending = false;
+        boolean open = duplicates != null && duplicates.sweep(now, force, this::writeRepeated);
+        if(limiter != null){
+            long dropped = limiter.dropped() - reportedRateDrops;
+            if(dropped > 0) writeSummary(String.format(Locale.ROOT, "Rate limit dropped %,d events", dropped));
+            reportedRateDrops += dropped;
+        }
+        long queueDrops = queue.dropped() - reportedQueueDrops;
+        if(queueDrops > 0){
+            if(force || queue.size() <= queue.capacity() / 2){
+                writeSummary(String.format(Locale.ROOT, "Queue full, %s dropped %,d events",
+                        config.getOverflowPolicy(), queueDrops));
+                reportedQueueDrops += queueDrops;
+            } else {
+                open = true;
+            }
+        }
+        for(Appender appender : appenders){
+            long appenderDrops = appender.dropped() - appender.reportedDrops;
+            if(appenderDrops > 0) writeSummary(String.format(Locale.ROOT, "Appender %s dropped %,d events",
+                    appender.name(), appenderDrops));
+            appender.reportedDrops += appenderDrops;
+        }
+        if(open) summariesPending = true;
+        nextSummaryNanos = now + summaryIntervalNanos;
+    }
+
+    private void writeSummary(String message){
+        summary.set(LogEvent.nowNanos(), LogLevel.WARN, message, null);
+        write(summary);
+        summary.clear();
+    }
+
+    private void writeRepeated(DuplicateFilter.Entry entry, long repeats){
+        summary.set(LogEvent.nowNanos(), entry.level, entry.message, null);
+        summary.setArgs(entry.argCount, entry.arg1, entry.arg2, entry.arg3, entry.args);
+        summary.fields = entry.fields;
+        summary.repeats = repeats;
+        write(summary);
+        summary.clear();
+    }
+
+    /**
+     * Caller thread, applies the duplicate filter and rate limits before anything is queued.
+     * Supplier messages are not known yet at this point, so they are only rate limited.
+     */
+    private boolean admit(LogLevel level, Fields fields, String message, Throwable throwable, int argCount,
+                          Object arg1, Object arg2, Object arg3, Object[] args){
+        if(duplicates == null && limiter == null) return true;
+        long now = System.nanoTime();
+        if(duplicates != null && message != null){
+            int verdict = duplicates.check(now, level, fields, message, throwable, argCount, arg1, arg2, arg3, args);
+            if(verdict != DuplicateFilter.ADMIT) summaryPending();
+            if(verdict == DuplicateFilter.REPEAT) return false;
+        }
+        if(limiter != null && !limiter.tryAcquire(now, level)){
+            summaryPending();
+            return false;
+        }
+        return true;
+    }
+
+    // Read before writing so a flood of suppressed calls does not keep writing the same cache line.
+    private void summaryPending(){
+        if(summariesPending) return;
+        summariesPending = true;
+        writer.wake();
+    }
+
+    /**
+     * @return Nanos until pending data must be flushed, 0 if it is due now, -1 if nothing is waiting on a timer.
+     */
+    private long nanosUntilFlush(){
+        if(unflushedEvents == 0) return -1;
+        if(flushPolicy.isFlushOnEmpty() && queue.isEmpty()) return 0;
+        if(flushPolicy.getMaxMillis() <= 0) return -1;
+        long remaining = firstUnflushedNanos + flushPolicy.getMaxMillis() * 1_000_000L - System.nanoTime();
+        return Math.max(0, remaining);
+    }
+
+    /**
+     * Writer thread only, between events. True when a batch asked for a sync or a caller's events have all been written.
+     */
+    private boolean commitDue(){
+        if(syncDue) return true;
+        long consumed = queue.consumed();
+        for(SyncRequest request : syncRequests){
+            if(request.upTo <= consumed) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Group commit, one flush and force covers every event written since the last one. Then completes
+     * every sync request whose events were among them, later ones wait for the next commit.
+     */
+    private void commit(){
+        long consumed = queue.consumed();
+        if(unflushedEvents > 0) flush();
+        IOException failure = syncFailure;
+        try{
+            output.force();
+        } catch (IOException e) {
+            System.out.println("Failed to sync output!" + e.getMessage());
+            failure = e;
+        }
+        syncDue = false;
+        syncFailure = null;
+        IOException failed = failure;
+        syncRequests.removeIf(request -> {
+            if(request.upTo > consumed) return false;
+            if(failed == null) request.done.complete(null);
+            else request.done.completeExceptionally(failed);
+            return true;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> sync(){
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        syncRequests.add(new SyncRequest(queue.claimed(), done));
+        // Checked after adding, so a request the writer's last commit missed is never left hanging.
+        if(detachedLatch.getCount() == 0) abandonSyncRequests();
+        else writer.wake();
+        return done;
+    }
+
+    private void abandonSyncRequests(){
+        SyncRequest request;
+        while((request = syncRequests.poll()) != null){
+            request.done.completeExceptionally(new IllegalStateException("Logger " + shortName + " is closed."));
+        }
+    }
+
+    private void addToIndex(long offset, int bytes, LogEvent event){
+        try{
+            index.add(offset, bytes, event.epochNanos, event.level);
+        } catch (IOException e) {
+            indexFailed(e);
+        }
+    }
+
+    private void indexFailed(IOException e){
+        System.out.println("Failed to write log index, carrying on without it! " + e.getMessage());
+        closeIndex(index);
+        index = null;
+    }
+
+    private LogIndex openIndex(File file){
+        if(!indexed) return null;
+        try{
+            return new LogIndex(file, headerBytes, config.getIndexBlockBytes(), config.getIndexBucketMillis() * 1_000_000L);
+        } catch (IOException e) {
+            System.out.println("Could not open log index, writing without one. " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static void closeIndex(LogIndex index){
+        if(index == null) return;
+        try{
+            index.close();
+        } catch (IOException e) {
+            System.out.println("Failed to close log index!" + e.getMessage());
+        }
+    }
+
+    private void flush(){
+        long start = System.nanoTime();
+        try{
+            output.flush();
+        } catch (IOException e) {
+            System.out.println("Failed to flush output!" + e.getMessage());
+        }
+        // Only after the log, so the index never points past what is in the file.
+        if(index != null){
+            try{
+                index.flush();
+            } catch (IOException e) {
+                indexFailed(e);
+            }
+        }
+        metrics.flushed(System.nanoTime() - start);
+        unflushedEvents = 0;
+        unflushedBytes = 0;
+    }
+
+    long rateLimited(){
+        return limiter == null ? 0 : limiter.dropped();
+    }
+
+    long suppressedDuplicates(){
+        return duplicates == null ? 0 : duplicates.suppressed();
+    }
+
+    LogWriter writer(){
+        return writer;
+    }
+
+    double writerUtilization(){
+        return writer.utilization();
+    }
+
+    @Override
+    public LoggerMetrics getMetrics(){
+        return metrics;
+    }
+
+    boolean isQueueEmpty(){
+        return queue.isEmpty();
+    }
+
+    boolean isClosing(){
+        return closing;
+    }
+
+    /**
+     * Called by the writer once it has drained this logger for the last time and let go of it.
+     */
+    void detached(){
+        if(summariesPending || duplicates != null || limiter != null) writeSummaries(true);
+        flush();
+        if(commitDue()) commit();
+        if(unrecordedEvents > 0) recordWritten();
+        detachedLatch.countDown();
+        abandonSyncRequests();
+    }
+
+    /**
+     * Asks the writer to drain this logger and let go of it, new events are ignored from here on.
+     * @return True if the writer let go within the timeout.
+     */
+    private boolean detach(long timeoutMillis) throws InterruptedException {
+        closing = true;
+        writer.wake();
+        return detachedLatch.await(timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Switches to the next file, either a new period once this one has expired or the next numbered
+     * file of the same period once this one is full. Runs on the writer thread between events,
+     * so nothing queued is lost and callers never wait on it. If the new file cannot be opened the
+     * current one is kept and the switch is retried a minute later.
+     */
+    private void roll(boolean expired){
+        long now = clock.millis();
+        if(now < rollRetryAtMillis) return;
+        LocalDate nextDate = date;
+        int nextHour = hour;
+        int nextIndex = fileIndex + 1;
+        if(expired){
+            LocalDateTime current = LocalDateTime.now(clock);
+            nextDate = current.toLocalDate();
+            nextHour = hour < 0 ? -1 : current.getHour();
+            nextIndex = 0;
+        }
+        synchronized(rollLock){
+            LogOutput previous = output;
+            LogIndex previousIndex = index;
+            try{
+                nextIndex = firstFreeIndex(nextDate, nextHour, nextIndex);
+                // Still the file being written, e.g. the clock stepped back, reopening it would map and truncate it under itself.
+                if(nextDate.equals(date) && nextHour == hour && nextIndex == fileIndex){
+                    expiresAtMillis = expiryOf(date, hour);
+                    return;
+                }
+                File next = config.createLogFile(nextDate, nextHour, nextIndex);
+                output = openOutput(next);
+                logFile = next;
+                date = nextDate;
+                hour = nextHour;
+                fileIndex = nextIndex;
+                expiresAtMillis = expiryOf(nextDate, nextHour);
+            } catch (IOException | RuntimeException e) {
+                System.out.println("Unable to roll over log file, keep using old for now. " + e.getMessage());
+                rollRetryAtMillis = now + ROLL_RETRY_MILLIS;
+                if(expired) expiresAtMillis = rollRetryAtMillis;
+                return;
+            }
+            unflushedEvents = 0;
+            unflushedBytes = 0;
+            // What went to the old file has to be on disk before the commit that follows the switch vouches for it.
+            if(syncDue || !syncRequests.isEmpty()){
+                try{
+                    previous.force();
+                } catch (IOException e) {
+                    System.out.println("Failed to sync rolled over output!" + e.getMessage());
+                    syncFailure = e;
+                }
+                syncDue = true;
+            }
+            try{
+                previous.close();
+            } catch (IOException e) {
+                System.out.println("Failed to close rolled over output!" + e.getMessage());
+            }
+            closeIndex(previousIndex);
+            index = openIndex(logFile);
+        }
+        if(rolling.isCompress() || rolling.hasRetention()) tidy();
+    }
+
+    /**
+     * Skips files of the period that are already full or were compressed by an earlier run.
+     */
+    private int firstFreeIndex(LocalDate date, int hour, int index){
+        File directory = new File(config.OUTPUT_DIRECTORY);
+        while(true){
+            String name = config.fileNameFor(date, hour, index);
+            boolean full = rolling.getMaxFileBytes() > 0 && new File(directory, name).length() >= rolling.getMaxFileBytes();
+            if(!full && !new File(directory, name + ".gz").exists()) return index;
+            index++;
+        }
+    }
+
+    private void tidy(){
+        LogArchiver.tidy(this, rolling);
+    }
+
+    /**
+     * Every file of this logger in its directory apart from the one being written, called from the archiver.
+     */
+    List<File> closedFiles(){
+        Pattern pattern = LogArchiver.rolledFiles(shortName);
+        synchronized(rollLock){
+            File[] files = new File(config.OUTPUT_DIRECTORY).listFiles((dir, name) -> pattern.matcher(name).matches());
+            if(files == null) return List.of();
+            List<File> closed = new ArrayList<>(files.length);
+            for(File file : files){
+                if(!file.equals(logFile)) closed.add(file);
+            }
+            return closed;
+        }
+    }
+
+    private long expiryOf(LocalDate date, int hour){
+        ZoneId zone = clock.getZone();
+        return switch(rolling.getInterval()){
+            case HOURLY -> date.atTime(hour, 0).plusHours(1).atZone(zone).toInstant().toEpochMilli();
+            case DAILY -> date.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+            case DAYS_TO_LOG -> date.plusDays(daysToLog + 1L).atStartOfDay(zone).toInstant().toEpochMilli();
+        };
+    }
+
+    private LogOutput openOutput(File file) throws IOException {
+        LogOutput opened = switch(config.getOutputType()){
+            case MEMORY_MAPPED -> new MappedFileOutput(file, config.getMappedRegionSize());
+            case FILE_CHANNEL -> new ChannelOutput(file,
+                    (int) Math.min(MAX_BUFFER_SIZE, Math.max(MIN_BUFFER_SIZE, flushPolicy.getMaxBytes())));
+        };
+        encoder.reset();
+        headerBytes = 0;
+        if(opened.size() == 0){
+            ByteBuffer header = encoder.encodeHeader();
+            headerBytes = header.remaining();
+            if(header.hasRemaining()) opened.write(header);
+        } else {
+            ByteBuffer resume = encoder.encodeResume();
+            if(resume.hasRemaining()) opened.write(resume);
+        }
+        return opened;
     }
 
-    private boolean isEmptyFile() throws IOException {
-        return Files.size(logFile.toPath()) == 0;
+
+    @Override
+    public boolean isEnabled(LogLevel level) {
+        return level.ordinal() <= this.level.ordinal();
+    }
+
+    @Override
+    public boolean isErrorEnabled() {
+        return isEnabled(LogLevel.ERROR);
+    }
+
+    @Override
+    public boolean isExceptEnabled() {
+        return isEnabled(LogLevel.EXCEPTION);
     }
 
+    @Override
+    public boolean isWarnEnabled() {
+        return isEnabled(LogLevel.WARN);
+    }
+
+    @Override
+    public boolean isLogEnabled() {
+        return isEnabled(LogLevel.LOG);
+    }
+
+    @Override
+    public boolean isInfoEnabled() {
+        return isEnabled(LogLevel.INFO);
+    }
+
+    /**
+     * Swaps every level field for either its real methods or the shared no-op.
+     */
+    @Override
+    public void setLevel(LogLevel level) {
+        this.level = level;
+        this.error = methodsFor(LogLevel.ERROR);
+        this.except = methodsFor(LogLevel.EXCEPTION);
+        this.warn = methodsFor(LogLevel.WARN);
+        this.log = methodsFor(LogLevel.LOG);
+        this.info = methodsFor(LogLevel.INFO);
+    }
+
+    private LogMethods methodsFor(LogLevel level){
+        return isEnabled(level) ? levelMethods[level.ordinal()] : DisabledMethods.INSTANCE;
+    }
+
+    @Override
+    public LogLevel getLevel() {
+        return level;
+    }
 
     @Override
     public boolean safeToClose(){
@@ -83,13 +731,7 @@ public class LoggerImpl extends Logger implements AutoCloseable {
     @Override
     public boolean stopRunning() throws Exception {
         try {
-            while (!safeToClose()) {
-                Thread.onSpinWait();
-                writeLogs();
-            }
-            bw.flush();
-            loggerService.shutdown();
-            return loggerService.awaitTermination(5000, TimeUnit.MILLISECONDS);
+            return detach(5000);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             System.out.println("Thread interrupted during shutdown.");
@@ -99,18 +741,69 @@ public class LoggerImpl extends Logger implements AutoCloseable {
         return false;
     }
 
-    protected void addToQueue(String logMessage){
-        try{
-            queue.put(logMessage);
-        } catch (InterruptedException e) {
-            System.out.println("Interrupt Exception when attempting to put log: " + logMessage);
-        }
+    // The enqueue path takes no monitors and does no I/O. The filters are CAS based, the ring buffer parks
+    // when it has to wait and the writer is woken with an unpark, so virtual thread callers never pin a carrier.
+    protected void addToQueue(LogLevel level, String logMessage, Throwable throwable){
+        if(!admit(level, null, logMessage, throwable, 0, null, null, null, null)) return;
+        long sequence = claim(level);
+        if(sequence < 0) return;
+        LogEvent event = queue.get(sequence);
+        event.set(LogEvent.nowNanos(), level, logMessage, throwable);
+        publish(sequence, event);
+    }
+
+    protected void addToQueue(LogLevel level, String pattern, int argCount,
+                              Object arg1, Object arg2, Object arg3, Object[] args){
+        if(!admit(level, null, pattern, null, argCount, arg1, arg2, arg3, args)) return;
+        long sequence = claim(level);
+        if(sequence < 0) return;
+        LogEvent event = queue.get(sequence);
+        event.set(LogEvent.nowNanos(), level, pattern, null);
+        event.setArgs(argCount, arg1, arg2, arg3, args);
+        publish(sequence, event);
+    }
 
+    protected void addToQueue(LogLevel level, Fields fields, String pattern, Throwable throwable, int argCount,
+                              Object arg1, Object arg2){
+        if(!admit(level, fields, pattern, throwable, argCount, arg1, arg2, null, null)) return;
+        long sequence = claim(level);
+        if(sequence < 0) return;
+        LogEvent event = queue.get(sequence);
+        event.set(LogEvent.nowNanos(), level, pattern, throwable);
+        event.setArgs(argCount, arg1, arg2, null, null);
+        event.fields = fields;
+        publish(sequence, event);
     }
 
+    protected void addToQueue(LogLevel level, Supplier<String> messageSupplier){
+        if(!admit(level, null, null, null, 0, null, null, null, null)) return;
+        long sequence = claim(level);
+        if(sequence < 0) return;
+        LogEvent event = queue.get(sequence);
+        event.set(LogEvent.nowNanos(), level, null, null);
+        event.supplier = messageSupplier;
+        publish(sequence, event);
+    }
+
+    private long claim(LogLevel level){
+        if(closing) return -1;
+        return queue.claim(level);
+    }
+
+    private void publish(long sequence, LogEvent event){
+        if(!deferredFormatting) event.formatted = formatter.format(event);
+        event.enqueuedNanos = System.nanoTime();
+        queue.publish(sequence);
+        writer.signal();
+    }
+
+    /**
+     * True once the current period of the rolling policy is over, by default date + daysToLog is before today.
+     * The writer rolls over to a new file at its next batch.
+     */
     @Override
     public boolean needNewLog() {
-        return date.plusDays(daysToLog).isBefore(LocalDate.now());
+        return clock.millis() >= expiresAtMillis;
     }
 
     @Override
@@ -188,86 +881,177 @@ public class LoggerImpl extends Logger implements AutoCloseable {
         info.log(logMessage, e);
     }
 
+    @Override
+    public void error(String pattern, Object arg) {
+        error.log(pattern, arg);
+    }
+
+    @Override
+    public void error(String pattern, Object arg1, Object arg2) {
+        error.log(pattern, arg1, arg2);
+    }
+
+    @Override
+    public void error(String pattern, Object arg1, Object arg2, Object arg3) {
+        error.log(pattern, arg1, arg2, arg3);
+    }
+
+    @Override
+    public void error(String pattern, Object... args) {
+        error.log(pattern, args);
+    }
+
+    @Override
+    public void error(Supplier<String> messageSupplier) {
+        error.log(messageSupplier);
+    }
+    @Override
+    public void except(String pattern, Object arg) {
+        except.log(pattern, arg);
+    }
+
+    @Override
+    public void except(String pattern, Object arg1, Object arg2) {
+        except.log(pattern, arg1, arg2);
+    }
+
+    @Override
+    public void except(String pattern, Object arg1, Object arg2, Object arg3) {
+        except.log(pattern, arg1, arg2, arg3);
+    }
+
+    @Override
+    public void except(String pattern, Object... args) {
+        except.log(pattern, args);
+    }
+
+    @Override
+    public void except(Supplier<String> messageSupplier) {
+        except.log(messageSupplier);
+    }
+    @Override
+    public void warn(String pattern, Object arg) {
+        warn.log(pattern, arg);
+    }
+
+    @Override
+    public void warn(String pattern, Object arg1, Object arg2) {
+        warn.log(pattern, arg1, arg2);
+    }
+
+    @Override
+    public void warn(String pattern, Object arg1, Object arg2, Object arg3) {
+        warn.log(pattern, arg1, arg2, arg3);
+    }
+
+    @Override
+    public void warn(String pattern, Object... args) {
+        warn.log(pattern, args);
+    }
+
+    @Override
+    public void warn(Supplier<String> messageSupplier) {
+        warn.log(messageSupplier);
+    }
+    @Override
+    public void log(String pattern, Object arg) {
+        log.log(pattern, arg);
+    }
+
+    @Override
+    public void log(String pattern, Object arg1, Object arg2) {
+        log.log(pattern, arg1, arg2);
+    }
+
+    @Override
+    public void log(String pattern, Object arg1, Object arg2, Object arg3) {
+        log.log(pattern, arg1, arg2, arg3);
+    }
+
+    @Override
+    public void log(String pattern, Object... args) {
+        log.log(pattern, args);
+    }
+
+    @Override
+    public void log(Supplier<String> messageSupplier) {
+        log.log(messageSupplier);
+    }
+    @Override
+    public void info(String pattern, Object arg) {
+        info.log(pattern, arg);
+    }
+
+    @Override
+    public void info(String pattern, Object arg1, Object arg2) {
+        info.log(pattern, arg1, arg2);
+    }
+
+    @Override
+    public void info(String pattern, Object arg1, Object arg2, Object arg3) {
+        info.log(pattern, arg1, arg2, arg3);
+    }
+
+    @Override
+    public void info(String pattern, Object... args) {
+        info.log(pattern, args);
+    }
+
+    @Override
+    public void info(Supplier<String> messageSupplier) {
+        info.log(messageSupplier);
+    }
+
     @Override
     public void close() throws Exception{
+        if(closed) return;
+        closed = true;
         Exception lastException = null;
         try{
-            loggerService.close();
+            if(!detach(5000)) System.out.println("Writer thread did not finish before closing logger " + shortName);
         } catch (Exception e){
-            System.out.println("Exception thrown while attempting to close service executor. " + e.getMessage());
+            System.out.println("Exception thrown while attempting to stop writer thread. " + e.getMessage());
             lastException = e;
         }
         try{
-            bw.flush();
-            bw.close();
+            output.close();
         } catch (Exception e){
-            System.out.println("Exception thrown while attempting to close buffered writer. " + e.getMessage());
+            System.out.println("Exception thrown while attempting to close log output. " + e.getMessage());
             lastException = e;
         }
+        closeIndex(index);
+        for(Appender appender : appenders){
+            try{
+                if(!appender.close(5000)) System.out.println("Appender " + appender.name() + " did not finish before closing logger " + shortName);
+                // Whatever it dropped while draining came too late for the log file.
+                long unreported = appender.dropped() - appender.reportedDrops;
+                if(unreported > 0) System.out.println("Appender " + appender.name() + " dropped " + unreported + " events while closing");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                System.out.println("Thread interrupted while closing appender " + appender.name());
+            }
+        }
         writingComplete = false;
         if(lastException != null) throw lastException;
     }
 
     private static class Warn extends LoggerMethods{
-        private static final String TYPE = "Warn";
-        Warn(LoggerImpl logger) {super(logger);}
-        @Override
-        public void log(String logMessage) {
-            this.log(TYPE, logMessage);
-        }
-        @Override
-        public void log(String logMessage, Exception e) {
-            this.log(TYPE, logMessage, e);
-        }
+        Warn(LoggerImpl logger) {super(logger, LogLevel.WARN);}
     }
 
     private static class Error extends LoggerMethods{
-        private static final String TYPE = "Error";
-        Error(LoggerImpl logger) {super(logger);}
-        @Override
-        public void log(String logMessage) {
-            this.log(TYPE, logMessage);
-        }
-        @Override
-        public void log(String logMessage, Exception e) {
-            this.log(TYPE, logMessage, e);
-        }
+        Error(LoggerImpl logger) {super(logger, LogLevel.ERROR);}
     }
 
     private static class Log extends LoggerMethods{
-        private static final String TYPE = "Log";
-        Log(LoggerImpl logger) {super(logger);}
-        @Override
-        public void log(String logMessage) {
-            this.log(TYPE, logMessage);
-        }
-        @Override
-        public void log(String logMessage, Exception e) {
-            this.log(TYPE, logMessage, e);
-        }
+        Log(LoggerImpl logger) {super(logger, LogLevel.LOG);}
     }
+
     private static class Except extends LoggerMethods{
-        private static final String TYPE = "Exception";
-        Except(LoggerImpl logger) {super(logger);}
-        @Override
-        public void log(String logMessage) {
-            this.log(TYPE, logMessage);
-        }
-        @Override
-        public void log(String logMessage, Exception e) {
-            this.log(TYPE, logMessage, e);
-        }
+        Except(LoggerImpl logger) {super(logger, LogLevel.EXCEPTION);}
     }
+
     private static class Info extends LoggerMethods{
-        private static final String TYPE = "Info";
-        Info(LoggerImpl logger) {super(logger);}
-        @Override
-        public void log(String logMessage) {
-            this.log(TYPE, logMessage);
-        }
-        @Override
-        public void log(String logMessage, Exception e) {
-            this.log(TYPE, logMessage, e);
-        }
+        Info(LoggerImpl logger) {super(logger, LogLevel.INFO);}
     }
 }
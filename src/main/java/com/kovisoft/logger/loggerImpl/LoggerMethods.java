@@ -1,39 +1,78 @@
 package com.kovisoft.logger.loggerImpl;
 
+import com.kovisoft.logger.exports.Fields;
+import com.kovisoft.logger.exports.LogLevel;
 import com.kovisoft.logger.exports.LogMethods;
 
-import java.time.LocalDateTime;
-import java.time.ZoneId;
-import java.util.Arrays;
-import java.util.stream.Collectors;
+import java.util.function.Supplier;
 
-import static com.kovisoft.logger.loggerImpl.LoggerImpl.*;
+/**
+ * Every call only claims a slot and captures references, the timestamp, columns,
+ * placeholders and suppliers are all rendered by the writer thread.
+ */
 abstract class LoggerMethods implements LogMethods {
 
 
     protected LoggerImpl logger;
-    LoggerMethods(LoggerImpl logger){
+    protected final LogLevel level;
+    LoggerMethods(LoggerImpl logger, LogLevel level){
         this.logger = logger;
+        this.level = level;
     }
 
-    public abstract void log(String logMessage);
-    public abstract void log(String logMessage, Exception e);
-    protected void log(String type, String logMessage){
-        LocalDateTime timeStamp = LocalDateTime.now(ZoneId.of("America/New_York"));
-        logger.addToQueue(String.format(LOG, timeStamp.toLocalTime().toString(),
-                timeStamp.toLocalDate().toString(), type, logMessage));
+    @Override
+    public void log(String logMessage){
+        logger.addToQueue(level, logMessage, null);
     }
 
-    protected void log(String type, String logMessage, Exception e){
-        LocalDateTime timeStamp = LocalDateTime.now(ZoneId.of("America/New_York"));
-        logger.addToQueue(String.format(EXCEPTION, timeStamp.toLocalTime().toString(),
-                timeStamp.toLocalDate().toString(), type, logMessage, e.getMessage(),
-                getStackTraceAsString(e)));
+    @Override
+    public void log(String logMessage, Exception e){
+        logger.addToQueue(level, logMessage, e);
     }
 
-    private String getStackTraceAsString(Exception e){
-        return Arrays.stream(e.getStackTrace())
-                .map(StackTraceElement::toString)
-                .collect(Collectors.joining(LINE_DELIMITER));
+    @Override
+    public void log(String pattern, Object arg){
+        logger.addToQueue(level, pattern, 1, arg, null, null, null);
     }
-}
\ No newline at end of file
+
+    @Override
+    public void log(String pattern, Object arg1, Object arg2){
+        logger.addToQueue(level, pattern, 2, arg1, arg2, null, null);
+    }
+
+    @Override
+    public void log(String pattern, Object arg1, Object arg2, Object arg3){
+        logger.addToQueue(level, pattern, 3, arg1, arg2, arg3, null);
+    }
+
+    @Override
+    public void log(String pattern, Object... args){
+        if(args == null) args = new Object[]{null};
+        logger.addToQueue(level, pattern, args.length, null, null, null, args);
+    }
+
+    @Override
+    public void log(Supplier<String> messageSupplier){
+        logger.addToQueue(level, messageSupplier);
+    }
+
+    @Override
+    public void log(Fields fields, String logMessage){
+        logger.addToQueue(level, fields, logMessage, null, 0, null, null);
+    }
+
+    @Override
+    public void log(Fields fields, String logMessage, Exception e){
+        logger.addToQueue(level, fields, logMessage, e, 0, null, null);
+    }
+
+    @Override
+    public void log(Fields fields, String pattern, Object arg){
+        logger.addToQueue(level, fields, pattern, null, 1, arg, null);
+    }
+
+    @Override
+    public void log(Fields fields, String pattern, Object arg1, Object arg2){
+        logger.addToQueue(level, fields, pattern, null, 2, arg1, arg2);
+    }
+}
@@ -0,0 +1,92 @@
+package com.kovisoft.logger.loggerImpl;
+
+import com.kovisoft.logger.exports.LoggerMetricsMXBean;
+
+import java.util.Locale;
+
+/**
+ * The counters behind a logger's metrics. Everything is recorded by the writer thread, callers
+ * only ever touch the drop counters that the queue and rate limits already keep.
+ */
+final class LoggerMetricsImpl implements LoggerMetricsMXBean {
+
+    private final LoggerImpl logger;
+    final Meter events = new Meter();
+    final Meter bytes = new Meter();
+    final LatencyHistogram latency = new LatencyHistogram();
+    private volatile int highWaterMark = 0;
+    private volatile long flushCount = 0;
+    private volatile long flushNanosTotal = 0;
+    private volatile long flushNanosMax = 0;
+
+    LoggerMetricsImpl(LoggerImpl logger){
+        this.logger = logger;
+    }
+
+    /**
+     * Writer thread only, called with the queue depth as a batch starts.
+     */
+    void queueDepth(int depth){
+        if(depth > highWaterMark) highWaterMark = depth;
+    }
+
+    /**
+     * Writer thread only.
+     */
+    void flushed(long nanos){
+        flushCount = flushCount + 1;
+        flushNanosTotal = flushNanosTotal + nanos;
+        if(nanos > flushNanosMax) flushNanosMax = nanos;
+    }
+
+    @Override
+    public String getShortName(){return logger.getShortName();}
+    @Override
+    public int getQueueDepth(){return logger.queue.size();}
+    @Override
+    public int getQueueCapacity(){return logger.queue.capacity();}
+    @Override
+    public int getQueueHighWaterMark(){return highWaterMark;}
+    @Override
+    public long getEventsWritten(){return events.total();}
+    @Override
+    public long getBytesWritten(){return bytes.total();}
+    @Override
+    public double getEventsPerSecond(){return events.rate();}
+    @Override
+    public double getBytesPerSecond(){return bytes.rate();}
+    @Override
+    public long getFlushCount(){return flushCount;}
+    @Override
+    public long getFlushNanosTotal(){return flushNanosTotal;}
+    @Override
+    public long getFlushNanosMax(){return flushNanosMax;}
+    @Override
+    public long getDroppedEvents(){return logger.queue.dropped();}
+    @Override
+    public long getRateLimitedEvents(){return logger.rateLimited();}
+    @Override
+    public long getSuppressedDuplicates(){return logger.suppressedDuplicates();}
+    @Override
+    public long getLatencyNanosP50(){return latency.valueAt(50);}
+    @Override
+    public long getLatencyNanosP99(){return latency.valueAt(99);}
+    @Override
+    public long getLatencyNanosP999(){return latency.valueAt(99.9);}
+    @Override
+    public long getLatencyNanosMax(){return latency.max();}
+    @Override
+    public void resetLatency(){latency.reset();}
+    @Override
+    public double getWriterUtilization(){return logger.writerUtilization();}
+
+    @Override
+    public String toString(){
+        return String.format(Locale.ROOT, "%s: queue %d/%d (max %d), %,d events %,d bytes (%.0f/s, %.0f B/s), "
+                        + "%,d flushes, dropped %,d, rate limited %,d, duplicates %,d, latency p50 %,dns p99 %,dns max %,dns, writer %.0f%%",
+                getShortName(), getQueueDepth(), getQueueCapacity(), getQueueHighWaterMark(),
+                getEventsWritten(), getBytesWritten(), getEventsPerSecond(), getBytesPerSecond(),
+                getFlushCount(), getDroppedEvents(), getRateLimitedEvents(), getSuppressedDuplicates(),
+                getLatencyNanosP50(), getLatencyNanosP99(), getLatencyNanosMax(), getWriterUtilization() * 100);
+    }
+}
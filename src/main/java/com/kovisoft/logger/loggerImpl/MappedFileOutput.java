@@ -0,0 +1,97 @@
+package com.kovisoft.logger.loggerImpl;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Copies encoded lines straight into a memory mapped region of the log file, so a write is a copy into the page cache.
+ * The file is mapped a region at a time, which grows the file ahead of the data,
+ * close truncates it back down to the bytes actually written.
+ */
+final class MappedFileOutput implements LogOutput {
+
+    private final FileChannel channel;
+    private final int regionSize;
+    private MappedByteBuffer region;
+    private long regionStart;
+
+    MappedFileOutput(File logFile, int regionSize) throws IOException {
+        this.regionSize = regionSize;
+        this.channel = FileChannel.open(logFile.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+        map(dataLength());
+    }
+
+    /**
+     * A crash before close leaves the zero padding of the last region in the file, skip back over it.
+     */
+    private long dataLength() throws IOException {
+        long length = channel.size();
+        ByteBuffer tail = ByteBuffer.allocate(4096);
+        while(length > 0){
+            int read = (int) Math.min(tail.capacity(), length);
+            tail.clear().limit(read);
+            channel.read(tail, length - read);
+            int i = read - 1;
+            while(i >= 0 && tail.get(i) == 0) i--;
+            if(i >= 0) return length - read + i + 1;
+            length -= read;
+        }
+        return 0;
+    }
+
+    private void map(long position) throws IOException {
+        regionStart = position;
+        region = channel.map(FileChannel.MapMode.READ_WRITE, regionStart, regionSize);
+    }
+
+    private void remap() throws IOException {
+        map(regionStart + region.position());
+    }
+
+    @Override
+    public void write(ByteBuffer bytes) throws IOException {
+        int limit = bytes.limit();
+        while(bytes.hasRemaining()){
+            if(!region.hasRemaining()) remap();
+            bytes.limit(bytes.position() + Math.min(bytes.remaining(), region.remaining()));
+            region.put(bytes);
+            bytes.limit(limit);
+        }
+    }
+
+    /**
+     * Mapped writes are already in the page cache, there is nothing to hand over.
+     */
+    @Override
+    public void flush() {
+    }
+
+    /**
+     * The regions mapped before this one are only reachable through the channel, so it is forced as well.
+     */
+    @Override
+    public void force() throws IOException {
+        region.force();
+        channel.force(false);
+    }
+
+    @Override
+    public long size() {
+        return regionStart + region.position();
+    }
+
+    @Override
+    public void close() throws IOException {
+        long length = size();
+        region = null;
+        try{
+            channel.truncate(length);
+        } finally {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.kovisoft.logger.loggerImpl;
+
+/**
+ * A running total and its rate per second, added to by one thread and read by any.
+ * The rate is taken over windows of about a second, once no window has closed for a while
+ * readers work it out from the open one, so an idle meter drifts down to 0.
+ */
+final class Meter {
+
+    private static final long WINDOW_NANOS = 1_000_000_000L;
+
+    private volatile long total = 0;
+    private volatile long windowStartNanos = System.nanoTime();
+    private volatile long windowStartTotal = 0;
+    private volatile double lastRate = 0;
+
+    /**
+     * Owning thread only.
+     * @param now System.nanoTime(), callers usually have it at hand already.
+     */
+    void add(long amount, long now){
+        long updated = total + amount;
+        total = updated;
+        long elapsed = now - windowStartNanos;
+        if(elapsed >= WINDOW_NANOS){
+            lastRate = (updated - windowStartTotal) * 1e9 / elapsed;
+            windowStartTotal = updated;
+            windowStartNanos = now;
+        }
+    }
+
+    long total(){
+        return total;
+    }
+
+    double rate(){
+        long elapsed = System.nanoTime() - windowStartNanos;
+        if(elapsed < 2 * WINDOW_NANOS) return lastRate;
+        return (total - windowStartTotal) * 1e9 / elapsed;
+    }
+}
@@ -0,0 +1,47 @@
+package com.kovisoft.logger.loggerImpl;
+
+import com.kovisoft.logger.config.RateLimitPolicy;
+import com.kovisoft.logger.exports.LogLevel;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The logger wide and per level token buckets of a RateLimitPolicy, plus an exact count of what they turned away.
+ */
+final class RateLimiter {
+
+    private final TokenBucket logger;
+    private final TokenBucket[] levels = new TokenBucket[LogLevel.values().length];
+    private final LongAdder dropped = new LongAdder();
+
+    RateLimiter(RateLimitPolicy policy){
+        logger = policy.getEventsPerSecond() > 0 ? new TokenBucket(policy.getEventsPerSecond(), policy.getBurst()) : null;
+        for(LogLevel level : LogLevel.values()){
+            if(policy.getLevelRate(level) > 0){
+                levels[level.ordinal()] = new TokenBucket(policy.getLevelRate(level), policy.getLevelBurst(level));
+            }
+        }
+    }
+
+    boolean tryAcquire(long now, LogLevel level){
+        TokenBucket bucket = levels[level.ordinal()];
+        if(bucket != null && !bucket.tryAcquire(now)){
+            dropped.increment();
+            return false;
+        }
+        if(logger != null && !logger.tryAcquire(now)){
+            // The level token would otherwise be spent on an event that is never written.
+            if(bucket != null) bucket.refund();
+            dropped.increment();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Every event turned away since the limiter was created.
+     */
+    long dropped(){
+        return dropped.sum();
+    }
+}
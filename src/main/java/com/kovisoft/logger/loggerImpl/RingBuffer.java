@@ -0,0 +1,323 @@
+package com.kovisoft.logger.loggerImpl;
+
+import com.kovisoft.logger.config.OverflowPolicy;
+import com.kovisoft.logger.exports.LogLevel;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded multi-producer single-consumer queue of preallocated LogEvents.
+ * Producers claim a sequence number, fill the slot for that sequence and then publish it.
+ * The writer reads the slots back in sequence order and releases them for reuse,
+ * so no nodes are allocated and no locks are taken on either side.
+ * Each slot carries the sequence it is ready for next, which lets a producer under DROP_OLDEST
+ * take the oldest published event away from the writer and discard it. Under DROP_OLDEST the writer
+ * copies each event out and frees its slot straight away, so a stalled writer never holds up a caller.
+ * Producers never take a monitor. Waiting callers sleep on a condition the writer signals, or yield when a
+ * spinning policy runs on a virtual thread, so a full buffer never ties up a carrier thread.
+ */
+final class RingBuffer {
+
+    // Waiting callers are signalled by the writer, this only bounds the wait should a signal ever be missed.
+    private static final long MAX_WAIT_NANOS = 10_000_000L;
+
+    private final LogEvent[] slots;
+    private final int mask;
+    private final OverflowPolicy policy;
+    private final long blockTimeoutNanos;
+    private final LogLevel overflowLevel;
+    private final int sampleRate;
+
+    // Per slot: its sequence when free to claim, sequence + 1 once published, sequence + capacity once released.
+    private final AtomicLongArray states;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+    private final LongAdder dropped = new LongAdder();
+    private final AtomicLong overflows = new AtomicLong();
+    private final Runnable onDrop;
+
+    // Callers waiting for a slot sleep on notFull, the writer signals it as it frees slots. A lock and
+    // condition rather than a monitor, so waiting virtual threads unmount instead of pinning their carrier.
+    private final ReentrantLock waitLock = new ReentrantLock();
+    private final Condition notFull = waitLock.newCondition();
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final int signalEvery;
+    // Consumer only.
+    private int freedSinceSignal = 0;
+
+    // Only ever touched by the consumer, the sequence peek handed out and release has not given back yet.
+    private long reading = -1;
+    private final LogEvent copied;
+    // Under DROP_OLDEST the slot is freed while the copy is still being written, this keeps it counted as pending.
+    private volatile boolean copyPending = false;
+
+    RingBuffer(int requestedCapacity, OverflowPolicy policy){
+        this(requestedCapacity, policy, 0, LogLevel.ERROR, 1, () -> {});
+    }
+
+    /**
+     * @param blockTimeoutNanos How long BLOCK_TIMEOUT waits for a slot.
+     * @param overflowLevel The least severe level DROP_BELOW_LEVEL still waits for a slot for.
+     * @param sampleRate SAMPLE waits for a slot for one in this many events that find the buffer full.
+     * @param onDrop Run on the producers thread after each event the policy dropped.
+     */
+    RingBuffer(int requestedCapacity, OverflowPolicy policy, long blockTimeoutNanos, LogLevel overflowLevel,
+               int sampleRate, Runnable onDrop){
+        int capacity = capacityFor(requestedCapacity);
+        this.slots = new LogEvent[capacity];
+        this.states = new AtomicLongArray(capacity);
+        for(int i = 0; i < capacity; i++){
+            slots[i] = new LogEvent();
+            states.set(i, i);
+        }
+        this.mask = capacity - 1;
+        this.policy = policy;
+        this.blockTimeoutNanos = blockTimeoutNanos;
+        this.overflowLevel = overflowLevel;
+        this.sampleRate = Math.max(1, sampleRate);
+        this.onDrop = onDrop;
+        this.signalEvery = Math.max(1, capacity / 8);
+        this.copied = policy == OverflowPolicy.DROP_OLDEST ? new LogEvent() : null;
+    }
+
+    static int capacityFor(int requestedCapacity){
+        if(requestedCapacity < 2) return 2;
+        if(requestedCapacity > 1 << 30) return 1 << 30;
+        return Integer.highestOneBit(requestedCapacity - 1) << 1;
+    }
+
+    long claim(){
+        return claim(LogLevel.ERROR);
+    }
+
+    /**
+     * Claims the next sequence for a producer, applying the overflow policy if the buffer is full.
+     * @return The claimed sequence or -1 if the policy dropped the event, which is counted.
+     */
+    long claim(LogLevel level){
+        long sequence = tryClaim();
+        if(sequence >= 0) return sequence;
+        switch(policy){
+            case DROP -> {
+                return drop();
+            }
+            case DROP_OLDEST -> {
+                return claimDroppingOldest();
+            }
+            case DROP_BELOW_LEVEL -> {
+                if(level.ordinal() > overflowLevel.ordinal()) return drop();
+            }
+            case SAMPLE -> {
+                if(overflows.getAndIncrement() % sampleRate != 0) return drop();
+            }
+            case BLOCK_TIMEOUT -> {
+                return claimWithin(blockTimeoutNanos);
+            }
+            default -> {}
+        }
+        return claimWaiting();
+    }
+
+    private long tryClaim(){
+        while(true){
+            long sequence = tail.get();
+            long state = states.get((int) sequence & mask);
+            if(state == sequence){
+                if(tail.compareAndSet(sequence, sequence + 1)) return sequence;
+            } else if(state < sequence){
+                return -1;
+            }
+        }
+    }
+
+    private long drop(){
+        dropped.increment();
+        onDrop.run();
+        return -1;
+    }
+
+    /**
+     * Waits as long as it takes. Interrupts are remembered and restored instead of honoured,
+     * BLOCK has always promised not to lose events.
+     */
+    private long claimWaiting(){
+        long sequence;
+        if(policy == OverflowPolicy.SPIN){
+            while((sequence = tryClaim()) < 0){
+                spinWait();
+            }
+            return sequence;
+        }
+        boolean interrupted = false;
+        waitLock.lock();
+        waiting.incrementAndGet();
+        try{
+            while((sequence = tryClaim()) < 0){
+                try{
+                    notFull.awaitNanos(MAX_WAIT_NANOS);
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } finally {
+            waiting.decrementAndGet();
+            waitLock.unlock();
+        }
+        if(interrupted) Thread.currentThread().interrupt();
+        return sequence;
+    }
+
+    private long claimWithin(long timeoutNanos){
+        long deadline = System.nanoTime() + timeoutNanos;
+        long sequence;
+        waitLock.lock();
+        waiting.incrementAndGet();
+        try{
+            while((sequence = tryClaim()) < 0){
+                long remaining = deadline - System.nanoTime();
+                if(remaining <= 0) return drop();
+                notFull.awaitNanos(Math.min(remaining, MAX_WAIT_NANOS));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return drop();
+        } finally {
+            waiting.decrementAndGet();
+            waitLock.unlock();
+        }
+        return sequence;
+    }
+
+    private long claimDroppingOldest(){
+        long sequence;
+        while((sequence = tryClaim()) < 0){
+            // The oldest slot may still be being filled by its producer, then there is nothing to take yet.
+            if(!discardOldest()) spinWait();
+        }
+        return sequence;
+    }
+
+    // A virtual thread spinning would keep its carrier from the very threads it is waiting on.
+    private static void spinWait(){
+        if(Thread.currentThread().isVirtual()) Thread.yield();
+        else Thread.onSpinWait();
+    }
+
+    private boolean discardOldest(){
+        long oldest = head.get();
+        int index = (int) oldest & mask;
+        if(states.get(index) != oldest + 1 || !head.compareAndSet(oldest, oldest + 1)) return false;
+        free(index, oldest);
+        dropped.increment();
+        onDrop.run();
+        return true;
+    }
+
+    LogEvent get(long sequence){
+        return slots[(int) sequence & mask];
+    }
+
+    void publish(long sequence){
+        states.set((int) sequence & mask, sequence + 1);
+    }
+
+    /**
+     * Consumer only. Returns the next published event without removing it, or null if none is ready.
+     */
+    LogEvent peek(){
+        if(reading >= 0) return copied != null ? copied : slots[(int) reading & mask];
+        while(true){
+            long sequence = head.get();
+            int index = (int) sequence & mask;
+            if(states.get(index) != sequence + 1) return null;
+            // Set before the event leaves the queue, so isEmpty always finds it in one place or the other.
+            if(copied != null) copyPending = true;
+            // Only fails when a DROP_OLDEST producer discarded it first.
+            if(head.compareAndSet(sequence, sequence + 1)){
+                reading = sequence;
+                if(copied == null) return slots[index];
+                copied.copyFrom(slots[index]);
+                free(index, sequence);
+                return copied;
+            }
+            if(copied != null) copyPending = false;
+        }
+    }
+
+    /**
+     * Consumer only. Clears the event returned by peek and hands its slot back to the producers.
+     */
+    void release(){
+        if(copied != null){
+            copied.clear();
+            copyPending = false;
+        } else {
+            free((int) reading & mask, reading);
+        }
+        reading = -1;
+        // Waking callers a few slots at a time rather than for each one keeps the writer off the lock.
+        if(++freedSinceSignal >= signalEvery) wakeWaiting();
+    }
+
+    /**
+     * Consumer only, signals callers waiting for a slot. Called by release and once more when a batch is done.
+     */
+    void wakeWaiting(){
+        if(freedSinceSignal == 0) return;
+        freedSinceSignal = 0;
+        if(waiting.get() == 0) return;
+        waitLock.lock();
+        try{
+            notFull.signalAll();
+        } finally {
+            waitLock.unlock();
+        }
+    }
+
+    private void free(int index, long sequence){
+        slots[index].clear();
+        states.set(index, sequence + slots.length);
+    }
+
+    boolean isEmpty(){
+        long next = head.get();
+        if(next != tail.get()) return false;
+        // The writer may still hold the last one, copied out of its slot under DROP_OLDEST.
+        if(copied != null) return !copyPending;
+        return next == 0 || states.get((int) (next - 1) & mask) != next;
+    }
+
+    int size(){
+        return (int) Math.min(slots.length, Math.max(0, tail.get() - head.get()));
+    }
+
+    /**
+     * The sequence the next claim will get, every event claimed so far is below it.
+     */
+    long claimed(){
+        return tail.get();
+    }
+
+    /**
+     * Consumer only. Every sequence below this has been written or dropped once the current event is released.
+     */
+    long consumed(){
+        return head.get();
+    }
+
+    int capacity(){
+        return slots.length;
+    }
+
+    /**
+     * Every event the overflow policy dropped since the buffer was created.
+     */
+    long dropped(){
+        return dropped.sum();
+    }
+}
@@ -0,0 +1,225 @@
+package com.kovisoft.logger.loggerImpl;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.kovisoft.logger.loggerImpl.LoggerImpl.LINE_DELIMITER;
+
+/**
+ * Renders each distinct stack trace once and hands the rendering out again for every throwable with the
+ * same frames, causes and suppressed exceptions. Lookups go by a 64 bit hash of those and compare them in
+ * full on a hit. Bounded, once full the least recently used traces are evicted. Lookups take no locks, so
+ * callers formatting eagerly can share it with the writer thread.
+ */
+final class StackTraceCache {
+
+    // Deeper chains than this are not cached, they are rendered afresh every time.
+    private static final int MAX_CHAIN = 64;
+
+    private final int capacity;
+    private final ConcurrentHashMap<Key, Trace> traces = new ConcurrentHashMap<>();
+    private final AtomicInteger nextId = new AtomicInteger();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    /**
+     * A rendered trace, the lines are the frames with the Caused by: and Suppressed: sections as
+     * Throwable.printStackTrace would print them, minus the indentation.
+     */
+    static final class Trace {
+        final int id;
+        final String[] lines;
+        final String text;
+        final byte[] utf8;
+        final byte[] header;
+        final byte[] reference;
+        volatile long lastUsed;
+        // Writer thread only, the file the full trace was last written to.
+        int writtenGeneration = -1;
+        // Writer thread only, the lines as a JSON array once a JSON encoder has needed them.
+        byte[] json;
+
+        private Trace(int id, String[] lines){
+            this.id = id;
+            this.lines = lines;
+            this.text = String.join(LINE_DELIMITER, lines);
+            this.utf8 = text.getBytes(StandardCharsets.UTF_8);
+            this.header = ("trace #" + id).getBytes(StandardCharsets.UTF_8);
+            this.reference = ("see trace #" + id).getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * What a rendering depends on, the classes, the messages of causes and suppressed exceptions and every frame,
+     * in the order render visits them. The fingerprint only spreads keys over the map, two keys are equal when all
+     * of their parts are, so a fingerprint collision never hands out another exception's trace.
+     */
+    static final class Key {
+        private final long fingerprint;
+        private final Object[] parts;
+
+        private Key(long fingerprint, Object[] parts){
+            this.fingerprint = fingerprint;
+            this.parts = parts;
+        }
+
+        @Override
+        public int hashCode(){
+            return Long.hashCode(fingerprint);
+        }
+
+        @Override
+        public boolean equals(Object other){
+            return other instanceof Key key && fingerprint == key.fingerprint && Arrays.deepEquals(parts, key.parts);
+        }
+    }
+
+    /**
+     * @param capacity The most distinct traces kept, 0 renders every trace afresh.
+     */
+    StackTraceCache(int capacity){
+        this.capacity = capacity;
+    }
+
+    Trace get(Throwable throwable){
+        Key key = capacity == 0 ? null : keyOf(throwable);
+        if(key == null) return new Trace(nextId.incrementAndGet(), render(throwable));
+        Trace trace = traces.get(key);
+        if(trace == null){
+            trace = new Trace(nextId.incrementAndGet(), render(throwable));
+            Trace raced = traces.putIfAbsent(key, trace);
+            if(raced != null){
+                trace = raced;
+            } else if(traces.size() > capacity){
+                evict();
+            }
+        }
+        trace.lastUsed = System.nanoTime();
+        return trace;
+    }
+
+    int size(){
+        return traces.size();
+    }
+
+    /**
+     * Drops the least recently used quarter, only one thread evicts at a time and the others carry on.
+     */
+    private void evict(){
+        if(!evicting.compareAndSet(false, true)) return;
+        try{
+            List<Map.Entry<Key, Trace>> entries = new ArrayList<>(traces.entrySet());
+            entries.sort((a, b) -> Long.compare(a.getValue().lastUsed, b.getValue().lastUsed));
+            int remove = entries.size() - capacity + capacity / 4;
+            for(int i = 0; i < remove && i < entries.size(); i++){
+                traces.remove(entries.get(i).getKey(), entries.get(i).getValue());
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    /**
+     * @return The key of the chain, or null if it is longer than MAX_CHAIN or circular, those are not cached.
+     */
+    static Key keyOf(Throwable throwable){
+        List<Object> parts = new ArrayList<>();
+        int[] budget = {MAX_CHAIN};
+        long h = hash(throwable, 0xcbf29ce484222325L, parts, budget);
+        return budget[0] < 0 ? null : new Key(mix(h), parts.toArray());
+    }
+
+    private static long hash(Throwable throwable, long h, List<Object> parts, int[] budget){
+        if(--budget[0] < 0) return h;
+        StackTraceElement[] frames = throwable.getStackTrace();
+        parts.add(throwable.getClass());
+        parts.add(frames);
+        h = (h ^ throwable.getClass().hashCode()) * 0x100000001b3L;
+        for(StackTraceElement frame : frames){
+            h = (h ^ frame.hashCode()) * 0x100000001b3L;
+        }
+        for(Throwable suppressed : throwable.getSuppressed()){
+            h = section(suppressed, 'S', h, parts, budget);
+        }
+        Throwable cause = throwable.getCause();
+        if(cause != null && cause != throwable){
+            h = section(cause, 'C', h, parts, budget);
+        }
+        return h;
+    }
+
+    private static long section(Throwable throwable, char caption, long h, List<Object> parts, int[] budget){
+        String message = String.valueOf(throwable.getLocalizedMessage());
+        parts.add(caption);
+        parts.add(message);
+        return hash(throwable, (h ^ caption) * 0x100000001b3L ^ message.hashCode(), parts, budget);
+    }
+
+    private static long mix(long h){
+        h = (h ^ (h >>> 33)) * 0xff51afd7ed558ccdL;
+        h = (h ^ (h >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return h ^ (h >>> 33);
+    }
+
+    static String[] render(Throwable throwable){
+        StackTraceElement[] frames = throwable.getStackTrace();
+        Throwable cause = throwable.getCause();
+        Throwable[] suppressed = throwable.getSuppressed();
+        if(suppressed.length == 0 && (cause == null || cause == throwable)){
+            String[] lines = new String[frames.length];
+            for(int i = 0; i < frames.length; i++){
+                lines[i] = frames[i].toString();
+            }
+            return lines;
+        }
+        List<String> lines = new ArrayList<>(frames.length * 2);
+        Set<Throwable> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        seen.add(throwable);
+        for(StackTraceElement frame : frames){
+            lines.add(frame.toString());
+        }
+        renderEnclosed(throwable, frames, lines, seen);
+        return lines.toArray(new String[0]);
+    }
+
+    private static void renderEnclosed(Throwable throwable, StackTraceElement[] frames, List<String> lines, Set<Throwable> seen){
+        for(Throwable suppressed : throwable.getSuppressed()){
+            renderSection(suppressed, frames, "Suppressed: ", lines, seen);
+        }
+        Throwable cause = throwable.getCause();
+        if(cause != null && cause != throwable){
+            renderSection(cause, frames, "Caused by: ", lines, seen);
+        }
+    }
+
+    private static void renderSection(Throwable throwable, StackTraceElement[] enclosing, String caption,
+                                      List<String> lines, Set<Throwable> seen){
+        if(!seen.add(throwable)){
+            lines.add("[CIRCULAR REFERENCE: " + throwable + "]");
+            return;
+        }
+        StackTraceElement[] frames = throwable.getStackTrace();
+        // Frames shared with the enclosing trace are only counted, like printStackTrace does.
+        int m = frames.length - 1;
+        int n = enclosing.length - 1;
+        while(m >= 0 && n >= 0 && frames[m].equals(enclosing[n])){
+            m--;
+            n--;
+        }
+        int inCommon = frames.length - 1 - m;
+        lines.add(caption + throwable);
+        for(int i = 0; i <= m; i++){
+            lines.add(frames[i].toString());
+        }
+        if(inCommon != 0) lines.add("... " + inCommon + " more");
+        renderEnclosed(throwable, frames, lines, seen);
+    }
+}
@@ -0,0 +1,81 @@
+package com.kovisoft.logger.loggerImpl;
+
+import com.kovisoft.logger.config.Sink;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+
+/**
+ * Streams lines to a collector over TCP. Connects on the first write and again on the first write after a failure.
+ */
+final class TcpSink implements Sink {
+
+    private static final int CONNECT_TIMEOUT_MILLIS = 5000;
+
+    private final String host;
+    private final int port;
+    private Socket socket;
+    private OutputStream out;
+
+    TcpSink(String host, int port){
+        this.host = host;
+        this.port = port;
+    }
+
+    @Override
+    public void write(byte[] line) throws IOException {
+        if(out == null) connect();
+        try{
+            out.write(line);
+        } catch (IOException e) {
+            disconnect();
+            throw e;
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if(out == null) return;
+        try{
+            out.flush();
+        } catch (IOException e) {
+            disconnect();
+            throw e;
+        }
+    }
+
+    private void connect() throws IOException {
+        Socket connecting = new Socket();
+        try{
+            connecting.connect(new InetSocketAddress(host, port), CONNECT_TIMEOUT_MILLIS);
+        } catch (IOException e) {
+            connecting.close();
+            throw e;
+        }
+        socket = connecting;
+        out = new BufferedOutputStream(socket.getOutputStream(), 64 * 1024);
+    }
+
+    private void disconnect(){
+        try{
+            socket.close();
+        } catch (IOException ignored) {
+            // Already broken, a new connection is made on the next write.
+        }
+        socket = null;
+        out = null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if(out == null) return;
+        try{
+            out.flush();
+        } finally {
+            disconnect();
+        }
+    }
+}
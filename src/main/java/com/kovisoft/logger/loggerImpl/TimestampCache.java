@@ -0,0 +1,145 @@
+package com.kovisoft.logger.loggerImpl;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+
+/**
+ * Renders the Time and Date columns the same way LocalTime.toString and LocalDate.toString do,
+ * without touching java.time for every event. The zone offset is cached until the next transition,
+ * the date bytes per day and the HH:mm:ss bytes per second, so only the fraction digits are rendered per event.
+ * Writer thread only.
+ */
+final class TimestampCache {
+
+    private static final int SECONDS_PER_DAY = 86_400;
+
+    private final ZoneRules rules;
+
+    private long offsetValidFrom = Long.MAX_VALUE;
+    private long offsetValidUntil = Long.MIN_VALUE;
+    private int offsetSeconds;
+    private byte[] offset;
+
+    private long cachedSecond = Long.MIN_VALUE;
+    private final byte[] time = new byte[8];
+    private int secondOfMinute;
+
+    private long cachedDay = Long.MIN_VALUE;
+    private byte[] date = new byte[10];
+
+    TimestampCache(ZoneId zone){
+        this.rules = zone.getRules();
+    }
+
+    /**
+     * The most bytes put or putIso will write, not counting the two column delimiters.
+     */
+    static int maxLength(){
+        return 18 + 16 + 1 + 9;
+    }
+
+    /**
+     * Writes "time column date column" for the instant, the caller makes sure there is room.
+     */
+    void put(long epochNanos, ByteBuffer buffer, byte[] column){
+        long epochSecond = Math.floorDiv(epochNanos, 1_000_000_000L);
+        int nano = (int) Math.floorMod(epochNanos, 1_000_000_000L);
+        if(epochSecond != cachedSecond) cacheSecond(epochSecond);
+
+        buffer.put(time, 0, 5);
+        if(secondOfMinute > 0 || nano > 0){
+            buffer.put(time, 5, 3);
+            putFraction(buffer, nano);
+        }
+        buffer.put(column);
+        buffer.put(date);
+        buffer.put(column);
+    }
+
+    /**
+     * Writes the instant as an ISO-8601 date time with its offset, 2024-03-01T09:15:02.5-05:00,
+     * the way OffsetDateTime.toString does apart from always writing the seconds.
+     */
+    void putIso(long epochNanos, ByteBuffer buffer){
+        long epochSecond = Math.floorDiv(epochNanos, 1_000_000_000L);
+        int nano = (int) Math.floorMod(epochNanos, 1_000_000_000L);
+        if(epochSecond != cachedSecond) cacheSecond(epochSecond);
+
+        buffer.put(date);
+        buffer.put((byte) 'T');
+        buffer.put(time);
+        putFraction(buffer, nano);
+        buffer.put(offset);
+    }
+
+    private static void putFraction(ByteBuffer buffer, int nano){
+        if(nano == 0) return;
+        buffer.put((byte) '.');
+        if(nano % 1_000_000 == 0) putDigits(buffer, nano / 1_000_000, 3);
+        else if(nano % 1000 == 0) putDigits(buffer, nano / 1000, 6);
+        else putDigits(buffer, nano, 9);
+    }
+
+    private void cacheSecond(long epochSecond){
+        if(epochSecond < offsetValidFrom || epochSecond >= offsetValidUntil) cacheOffset(epochSecond);
+        long localSecond = epochSecond + offsetSeconds;
+        long day = Math.floorDiv(localSecond, SECONDS_PER_DAY);
+        int secondOfDay = Math.floorMod(localSecond, SECONDS_PER_DAY);
+        secondOfMinute = secondOfDay % 60;
+        putDigits(time, 0, secondOfDay / 3600, 2);
+        time[2] = ':';
+        putDigits(time, 3, (secondOfDay / 60) % 60, 2);
+        time[5] = ':';
+        putDigits(time, 6, secondOfMinute, 2);
+        if(day != cachedDay) cacheDay(day);
+        cachedSecond = epochSecond;
+    }
+
+    private void cacheOffset(long epochSecond){
+        Instant instant = Instant.ofEpochSecond(epochSecond);
+        ZoneOffset zoneOffset = rules.getOffset(instant);
+        offsetSeconds = zoneOffset.getTotalSeconds();
+        offset = zoneOffset.getId().getBytes(StandardCharsets.US_ASCII);
+        ZoneOffsetTransition next = rules.nextTransition(instant);
+        offsetValidFrom = epochSecond;
+        offsetValidUntil = next == null ? Long.MAX_VALUE : next.toEpochSecond();
+    }
+
+    private void cacheDay(long day){
+        LocalDate localDate = LocalDate.ofEpochDay(day);
+        int year = localDate.getYear();
+        if(year < 0 || year > 9999){
+            date = localDate.toString().getBytes(StandardCharsets.US_ASCII);
+        } else {
+            if(date.length != 10) date = new byte[10];
+            putDigits(date, 0, year, 4);
+            date[4] = '-';
+            putDigits(date, 5, localDate.getMonthValue(), 2);
+            date[7] = '-';
+            putDigits(date, 8, localDate.getDayOfMonth(), 2);
+        }
+        cachedDay = day;
+    }
+
+    private static void putDigits(byte[] bytes, int offset, int value, int width){
+        for(int i = offset + width - 1; i >= offset; i--){
+            bytes[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+    private static void putDigits(ByteBuffer buffer, int value, int width){
+        int start = buffer.position();
+        for(int i = start + width - 1; i >= start; i--){
+            buffer.put(i, (byte) ('0' + value % 10));
+            value /= 10;
+        }
+        buffer.position(start + width);
+    }
+}
@@ -0,0 +1,39 @@
+package com.kovisoft.logger.loggerImpl;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket in its GCRA form, the whole state is the theoretical arrival time of the next event
+ * in one AtomicLong. Taking a token is a single CAS, a rejection only reads it.
+ */
+final class TokenBucket {
+
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final AtomicLong arrival;
+
+    TokenBucket(double eventsPerSecond, int burst){
+        this.intervalNanos = Math.max(1, (long) (1_000_000_000L / eventsPerSecond));
+        this.toleranceNanos = intervalNanos * (Math.max(1, burst) - 1L);
+        this.arrival = new AtomicLong(System.nanoTime());
+    }
+
+    /**
+     * @param now System.nanoTime() of the call.
+     */
+    boolean tryAcquire(long now){
+        while(true){
+            long current = arrival.get();
+            long base = now - current > 0 ? now : current;
+            if(base - now > toleranceNanos) return false;
+            if(arrival.compareAndSet(current, base + intervalNanos)) return true;
+        }
+    }
+
+    /**
+     * Gives back a token taken for an event that was turned away after all.
+     */
+    void refund(){
+        arrival.addAndGet(-intervalNanos);
+    }
+}
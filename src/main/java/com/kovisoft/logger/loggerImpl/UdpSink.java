@@ -0,0 +1,42 @@
+package com.kovisoft.logger.loggerImpl;
+
+import com.kovisoft.logger.config.Sink;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetSocketAddress;
+
+/**
+ * Sends each line as one datagram. Nothing confirms delivery, a collector that is down simply loses the lines.
+ */
+final class UdpSink implements Sink {
+
+    // The largest payload an IPv4 datagram can carry.
+    private static final int MAX_DATAGRAM_BYTES = 65_507;
+
+    private final String host;
+    private final int port;
+    private InetSocketAddress address;
+    private DatagramSocket socket;
+
+    UdpSink(String host, int port){
+        this.host = host;
+        this.port = port;
+    }
+
+    @Override
+    public void write(byte[] line) throws IOException {
+        if(address == null || address.isUnresolved()){
+            address = new InetSocketAddress(host, port);
+            if(address.isUnresolved()) throw new IOException("Could not resolve " + host);
+        }
+        if(socket == null) socket = new DatagramSocket();
+        socket.send(new DatagramPacket(line, Math.min(line.length, MAX_DATAGRAM_BYTES), address));
+    }
+
+    @Override
+    public void close(){
+        if(socket != null) socket.close();
+    }
+}
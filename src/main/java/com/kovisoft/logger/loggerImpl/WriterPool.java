@@ -0,0 +1,59 @@
+package com.kovisoft.logger.loggerImpl;
+
+import com.kovisoft.logger.config.WaitStrategy;
+
+/**
+ * A fixed set of LogWriters shared by every logger the LogManager hands out,
+ * so the number of writer threads follows the core count rather than the number of loggers.
+ */
+final class WriterPool {
+
+    private final LogWriter[] writers;
+
+    WriterPool(int threads, WaitStrategy strategy){
+        writers = new LogWriter[Math.max(1, threads)];
+        for(int i = 0; i < writers.length; i++){
+            writers[i] = new LogWriter("Logger-writer-" + i, strategy, false);
+        }
+    }
+
+    /**
+     * Attaches the logger to the writer currently serving the fewest loggers.
+     */
+    synchronized LogWriter assign(LoggerImpl logger){
+        LogWriter least = writers[0];
+        for(LogWriter writer : writers){
+            if(writer.loggerCount() < least.loggerCount()) least = writer;
+        }
+        least.attach(logger);
+        return least;
+    }
+
+    boolean isRunning(){
+        return writers[0].isRunning();
+    }
+
+    int size(){
+        return writers.length;
+    }
+
+    double[] utilization(){
+        double[] utilization = new double[writers.length];
+        for(int i = 0; i < writers.length; i++){
+            utilization[i] = writers[i].utilization();
+        }
+        return utilization;
+    }
+
+    /**
+     * Stops every writer once the loggers attached to it are drained.
+     * @return True if all writers exited within the timeout.
+     */
+    boolean shutdown(long timeoutMillis) throws InterruptedException {
+        boolean stopped = true;
+        for(LogWriter writer : writers){
+            stopped &= writer.stop(timeoutMillis);
+        }
+        return stopped;
+    }
+}
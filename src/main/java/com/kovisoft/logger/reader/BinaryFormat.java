@@ -0,0 +1,28 @@
+package com.kovisoft.logger.reader;
+
+/**
+ * Layout of files written with LogFormat.BINARY.
+ * <pre>
+ * file   := MAGIC VERSION (record | MAGIC VERSION)*
+ * record := FRAME  varint(id) string END
+ *         | EVENT  zigzag(timestampDelta) level string END
+ *         | EXCEPTION zigzag(timestampDelta) level string string varint(frameCount) varint(id)* END
+ * string := varint(byteLength) utf8Bytes
+ * </pre>
+ * Timestamps are epoch nanoseconds, each one stored as the difference to the previous event in the file.
+ * Frame ids are assigned as frames are first seen and a FRAME record always comes before the first event using it,
+ * an id may be defined again later in the same file and then replaces the earlier definition.
+ * A writer appending to a file that already has data first writes MAGIC VERSION again, timestamps and frame ids
+ * start over from there.
+ * END never being 0 keeps a memory mapped file's zero padding from being mistaken for data.
+ */
+public final class BinaryFormat {
+    public static final byte[] MAGIC = {'K', 'V', 'L', 'G'};
+    public static final byte VERSION = 1;
+    public static final byte FRAME = 1;
+    public static final byte EVENT = 2;
+    public static final byte EXCEPTION = 3;
+    public static final byte END = '\n';
+
+    private BinaryFormat(){}
+}
@@ -0,0 +1,248 @@
+package com.kovisoft.logger.reader;
+
+import com.kovisoft.logger.exports.LogLevel;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static com.kovisoft.logger.loggerImpl.LoggerImpl.COLUMN_DELIMITER;
+
+/**
+ * Streams the records of a file written with LogFormat.BINARY, reading it through a fixed buffer
+ * so files of any size can be read. A record cut short at the end of the file, as left by a crash,
+ * ends the stream like the end of the file does.
+ */
+public class BinaryLogReader implements Closeable {
+
+    private static final LogLevel[] LEVELS = LogLevel.values();
+
+    private final FileChannel channel;
+    private ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+    private final ArrayList<String> frames = new ArrayList<>();
+    private long lastNanos = 0;
+    private boolean endOfFile = false;
+    private int recordStart = 0;
+
+    public BinaryLogReader(Path file) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.READ);
+        buffer.limit(0);
+        try{
+            byte[] magic = new byte[BinaryFormat.MAGIC.length];
+            if(!available(magic.length + 1)) throw new IOException("Not a binary log file: " + file);
+            buffer.get(magic);
+            if(!Arrays.equals(magic, BinaryFormat.MAGIC)) throw new IOException("Not a binary log file: " + file);
+            byte version = buffer.get();
+            if(version != BinaryFormat.VERSION) throw new IOException("Unsupported binary log version " + version + ": " + file);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return The next record, or null once the file has been read.
+     */
+    public LogRecord next() throws IOException {
+        while(true){
+            recordStart = buffer.position();
+            if(!available(1)) return null;
+            try{
+                byte type = buffer.get();
+                if(type == BinaryFormat.FRAME){
+                    int id = (int) readVarLong();
+                    String frame = readString();
+                    expectEnd();
+                    while(frames.size() <= id) frames.add(null);
+                    frames.set(id, frame);
+                    continue;
+                }
+                if(type == 0) return null; // zero padding of a memory mapped file that was not closed cleanly
+                if(type == BinaryFormat.MAGIC[0]){
+                    readResume();
+                    continue;
+                }
+                if(type != BinaryFormat.EVENT && type != BinaryFormat.EXCEPTION){
+                    throw new IOException("Corrupt binary log, unknown record type " + type);
+                }
+                long nanos = lastNanos + unZigZag(readVarLong());
+                int ordinal = readByte();
+                if(ordinal < 0 || ordinal >= LEVELS.length) throw new IOException("Corrupt binary log, unknown level " + ordinal);
+                LogLevel level = LEVELS[ordinal];
+                String message = readString();
+                String exceptionMessage = null;
+                List<String> stackTrace = null;
+                if(type == BinaryFormat.EXCEPTION){
+                    exceptionMessage = readString();
+                    int count = (int) readVarLong();
+                    String[] trace = new String[count];
+                    for(int i = 0; i < count; i++){
+                        trace[i] = frames.get((int) readVarLong());
+                    }
+                    stackTrace = List.of(trace);
+                }
+                expectEnd();
+                lastNanos = nanos;
+                return new LogRecord(nanos, level, message, exceptionMessage, stackTrace);
+            } catch (TruncatedException e) {
+                buffer.position(recordStart);
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Every remaining record, closing the stream closes the reader.
+     */
+    public Stream<LogRecord> records(){
+        Iterator<LogRecord> iterator = new Iterator<>() {
+            private LogRecord next;
+
+            @Override
+            public boolean hasNext() {
+                if(next == null){
+                    try{
+                        next = BinaryLogReader.this.next();
+                    } catch (IOException e) {
+                        throw new RuntimeException(e);
+                    }
+                }
+                return next != null;
+            }
+
+            @Override
+            public LogRecord next() {
+                if(!hasNext()) throw new NoSuchElementException();
+                LogRecord record = next;
+                next = null;
+                return record;
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator,
+                Spliterator.ORDERED | Spliterator.NONNULL), false).onClose(() -> {
+            try{
+                close();
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+    }
+
+    /**
+     * Writes the remaining records in the text layout, header first, one row per line.
+     * @return The number of records written.
+     */
+    public long writeText(Writer out, ZoneId zone) throws IOException {
+        out.write(String.join(COLUMN_DELIMITER, "Time", "Date", "Type", "Message", "ExceptionMessage", "StackTrace"));
+        out.write(System.lineSeparator());
+        long count = 0;
+        LogRecord record;
+        while((record = next()) != null){
+            out.write(record.toText(zone));
+            out.write(System.lineSeparator());
+            count++;
+        }
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * The rest of a header repeated where a writer started appending, what came before no longer applies.
+     */
+    private void readResume() throws IOException {
+        for(int i = 1; i < BinaryFormat.MAGIC.length; i++){
+            if(readByte() != BinaryFormat.MAGIC[i]) throw new IOException("Corrupt binary log, broken header");
+        }
+        byte version = readByte();
+        if(version != BinaryFormat.VERSION) throw new IOException("Unsupported binary log version " + version);
+        lastNanos = 0;
+        frames.clear();
+    }
+
+    private String readString() throws IOException {
+        int length = (int) readVarLong();
+        require(length);
+        String s = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return s;
+    }
+
+    private long readVarLong() throws IOException {
+        long value = 0;
+        for(int shift = 0; shift < 64; shift += 7){
+            byte b = readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if(b >= 0) return value;
+        }
+        throw new IOException("Corrupt binary log, varint too long");
+    }
+
+    private byte readByte() throws IOException {
+        require(1);
+        return buffer.get();
+    }
+
+    private void expectEnd() throws IOException {
+        if(readByte() != BinaryFormat.END) throw new IOException("Corrupt binary log, record not terminated");
+    }
+
+    private void require(int bytes) throws IOException {
+        if(!available(bytes)) throw new TruncatedException();
+    }
+
+    /**
+     * Makes sure the buffer holds at least this many unread bytes, reading and growing as needed.
+     * Bytes already consumed by the record being read are kept so it can be rewound.
+     */
+    private boolean available(int bytes) throws IOException {
+        if(buffer.remaining() >= bytes) return true;
+        if(endOfFile) return false;
+        int consumed = buffer.position() - recordStart;
+        int needed = consumed + bytes;
+        buffer.position(recordStart);
+        buffer.compact();
+        if(buffer.capacity() < needed){
+            ByteBuffer grown = ByteBuffer.allocate(Math.max(needed, buffer.capacity() * 2));
+            buffer.flip();
+            grown.put(buffer);
+            buffer = grown;
+        }
+        while(buffer.position() < needed){
+            if(channel.read(buffer) < 0){
+                endOfFile = true;
+                break;
+            }
+        }
+        buffer.flip();
+        buffer.position(consumed);
+        recordStart = 0;
+        return buffer.remaining() >= bytes;
+    }
+
+    private static long unZigZag(long value){
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static final class TruncatedException extends IOException {
+        private static final long serialVersionUID = 1L;
+    }
+}
@@ -0,0 +1,27 @@
+package com.kovisoft.logger.reader;
+
+import java.nio.file.Path;
+
+/**
+ * Layout of the sparse index a TEXT logger with LoggerConfig.setIndexed keeps next to each file, name.log.idx.
+ * <pre>
+ * file  := MAGIC VERSION entry*
+ * entry := long(startOffset) long(endOffset) long(minNanos) long(maxNanos) int(count) int(levelMask)
+ * </pre>
+ * Each entry covers a block of whole lines of the log file, [startOffset, endOffset), with the earliest and
+ * latest epoch nanos of its events and bit level.ordinal() set for every level in it. The header line is covered
+ * by an entry without events or levels. Big endian, entries are in file order. Bytes of the log no entry covers, the block still being written or one lost to a crash, are
+ * simply read in full.
+ */
+public final class IndexFormat {
+    public static final byte[] MAGIC = {'K', 'V', 'L', 'I'};
+    public static final byte VERSION = 1;
+    public static final int HEADER_BYTES = MAGIC.length + 1;
+    public static final int ENTRY_BYTES = 4 * Long.BYTES + 2 * Integer.BYTES;
+
+    private IndexFormat(){}
+
+    public static Path indexFileFor(Path logFile){
+        return logFile.resolveSibling(logFile.getFileName() + ".idx");
+    }
+}
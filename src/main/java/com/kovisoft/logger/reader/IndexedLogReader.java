@@ -0,0 +1,218 @@
+package com.kovisoft.logger.reader;
+
+import com.kovisoft.logger.exports.LogLevel;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Answers time range and level queries over a TEXT log file using the sidecar index described by IndexFormat.
+ * The index is memory mapped and only the blocks whose time range and levels can match are read from the log,
+ * so a query reads about as much as it returns. Without an index, or past its last entry, the file is read in full.
+ * Works on a file that is still being written, it sees what had been flushed when the query started.
+ */
+public class IndexedLogReader implements Closeable {
+
+    // Ranges the index does not cover are read in chunks of this size.
+    private static final int CHUNK_BYTES = 1 << 20;
+    private static final int ALL_LEVELS = -1;
+
+    private final FileChannel channel;
+    private final ZoneId zone;
+    private final List<Block> blocks = new ArrayList<>();
+
+    private record Block(long start, long end, long minNanos, long maxNanos, int levels){
+        boolean matches(long fromNanos, long toNanos, int levelMask){
+            return (levels & levelMask) != 0 && maxNanos >= fromNanos && minNanos < toNanos;
+        }
+    }
+
+    /**
+     * @param zone The zone the logger wrote its Time and Date columns in.
+     */
+    public IndexedLogReader(Path logFile, ZoneId zone) throws IOException {
+        this.zone = zone;
+        channel = FileChannel.open(logFile, StandardOpenOption.READ);
+        try{
+            readIndex(IndexFormat.indexFileFor(logFile), channel.size());
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private void readIndex(Path indexFile, long logSize) throws IOException {
+        long covered = 0;
+        if(Files.exists(indexFile)){
+            try(FileChannel indexChannel = FileChannel.open(indexFile, StandardOpenOption.READ)){
+                long size = indexChannel.size();
+                if(size >= IndexFormat.HEADER_BYTES){
+                    MappedByteBuffer index = indexChannel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                    byte[] magic = new byte[IndexFormat.MAGIC.length];
+                    index.get(magic);
+                    if(!Arrays.equals(magic, IndexFormat.MAGIC) || index.get() != IndexFormat.VERSION){
+                        throw new IOException("Not a log index: " + indexFile);
+                    }
+                    // A partly written last entry, as left by a crash, is ignored.
+                    while(index.remaining() >= IndexFormat.ENTRY_BYTES){
+                        long start = index.getLong();
+                        long end = index.getLong();
+                        long minNanos = index.getLong();
+                        long maxNanos = index.getLong();
+                        index.getInt(); // the event count, not needed for reading
+                        Block block = new Block(start, end, minNanos, maxNanos, index.getInt());
+                        if(block.end > logSize) break;
+                        if(block.start > covered) blocks.add(unindexed(covered, block.start));
+                        if(block.start >= covered) blocks.add(block);
+                        covered = Math.max(covered, block.end);
+                    }
+                }
+            }
+        }
+        if(logSize > covered) blocks.add(unindexed(covered, logSize));
+    }
+
+    private static Block unindexed(long start, long end){
+        return new Block(start, end, Long.MIN_VALUE, Long.MAX_VALUE, ALL_LEVELS);
+    }
+
+    /**
+     * Every record from, inclusive, to to, exclusive, at one of the levels, in file order.
+     * Closing the stream does not close the reader, several queries can run one after another.
+     */
+    public Stream<LogRecord> query(Instant from, Instant to, Set<LogLevel> levels){
+        long fromNanos = toNanos(from);
+        long toNanos = toNanos(to);
+        int mask = TextRows.maskOf(levels);
+        Iterator<Block> matching = blocks.stream().filter(block -> block.matches(fromNanos, toNanos, mask)).iterator();
+        Iterator<LogRecord> iterator = new Iterator<>() {
+            private final ArrayDeque<LogRecord> ready = new ArrayDeque<>();
+            private final BlockReader reader = new BlockReader();
+
+            @Override
+            public boolean hasNext() {
+                while(ready.isEmpty()){
+                    try{
+                        if(!reader.next(ready, fromNanos, toNanos, mask)){
+                            if(!matching.hasNext()) return false;
+                            reader.start(matching.next());
+                        }
+                    } catch (IOException e) {
+                        throw new RuntimeException(e);
+                    }
+                }
+                return true;
+            }
+
+            @Override
+            public LogRecord next() {
+                if(!hasNext()) throw new NoSuchElementException();
+                return ready.poll();
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator,
+                Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    public Stream<LogRecord> query(Instant from, Instant to, LogLevel... levels){
+        return query(from, to, levels.length == 0 ? EnumSet.allOf(LogLevel.class) : EnumSet.copyOf(Arrays.asList(levels)));
+    }
+
+    /**
+     * How many bytes of the log a query would read, for checking the index is doing its job.
+     */
+    public long bytesToRead(Instant from, Instant to, Set<LogLevel> levels){
+        long total = 0;
+        for(Block block : blocks){
+            if(block.matches(toNanos(from), toNanos(to), TextRows.maskOf(levels))) total += block.end - block.start;
+        }
+        return total;
+    }
+
+    private static long toNanos(Instant instant){
+        return instant.getEpochSecond() * 1_000_000_000L + instant.getNano();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Reads one block in chunks and turns its lines into records, a line cut by a chunk
+     * boundary is carried over into the next chunk.
+     */
+    private final class BlockReader {
+        private ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+        private final TextRows rows = new TextRows(zone);
+        private long position;
+        private long end;
+
+        void start(Block block){
+            position = block.start;
+            end = block.end;
+            buffer.clear();
+        }
+
+        /**
+         * @return False once the block has been read.
+         */
+        boolean next(ArrayDeque<LogRecord> ready, long fromNanos, long toNanos, int levelMask) throws IOException {
+            if(position >= end && buffer.position() == 0) return false;
+            if(position < end){
+                int toRead = (int) Math.min(CHUNK_BYTES, end - position);
+                if(buffer.remaining() < toRead){
+                    ByteBuffer grown = ByteBuffer.allocate(buffer.position() + toRead);
+                    buffer.flip();
+                    buffer = grown.put(buffer);
+                }
+                int limit = buffer.position() + toRead;
+                while(buffer.position() < limit){
+                    int read = channel.read(buffer.limit(limit), position);
+                    if(read < 0) break;
+                    position += read;
+                }
+                buffer.limit(buffer.capacity());
+                if(buffer.position() < limit) end = position;
+            }
+            byte[] bytes = buffer.array();
+            int lineStart = 0;
+            for(int i = 0; i < buffer.position(); i++){
+                if(bytes[i] != '\n') continue;
+                int lineEnd = i > lineStart && bytes[i - 1] == '\r' ? i - 1 : i;
+                LogRecord record = rows.parse(new String(bytes, lineStart, lineEnd - lineStart, StandardCharsets.UTF_8), levelMask);
+                if(record != null && record.getEpochNanos() >= fromNanos && record.getEpochNanos() < toNanos) ready.add(record);
+                lineStart = i + 1;
+            }
+            if(position >= end){
+                // Nothing follows, a line without a separator is the last one and is dropped as unfinished.
+                buffer.clear();
+            } else {
+                buffer.flip().position(lineStart);
+                buffer.compact();
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.kovisoft.logger.reader;
+
+import com.kovisoft.logger.exports.LogLevel;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static com.kovisoft.logger.loggerImpl.LoggerImpl.COLUMN_DELIMITER;
+import static com.kovisoft.logger.loggerImpl.LoggerImpl.LINE_DELIMITER;
+
+/**
+ * One event read back from a binary log file.
+ */
+public final class LogRecord {
+    private final long epochNanos;
+    private final LogLevel level;
+    private final String message;
+    private final String exceptionMessage;
+    private final List<String> stackTrace;
+
+    LogRecord(long epochNanos, LogLevel level, String message, String exceptionMessage, List<String> stackTrace){
+        this.epochNanos = epochNanos;
+        this.level = level;
+        this.message = message;
+        this.exceptionMessage = exceptionMessage;
+        this.stackTrace = stackTrace;
+    }
+
+    public Instant getInstant(){
+        return Instant.ofEpochSecond(0, epochNanos);
+    }
+
+    public boolean hasException(){
+        return stackTrace != null;
+    }
+
+    /**
+     * The row the text format would have written for this event, without the line separator.
+     * @param zone The zone for the Time and Date columns, normally the logger's configured zone.
+     */
+    public String toText(ZoneId zone){
+        LocalDateTime timeStamp = LocalDateTime.ofInstant(getInstant(), zone);
+        StringBuilder sb = new StringBuilder(128);
+        sb.append(timeStamp.toLocalTime()).append(COLUMN_DELIMITER)
+                .append(timeStamp.toLocalDate()).append(COLUMN_DELIMITER)
+                .append(level.getLabel()).append(COLUMN_DELIMITER)
+                .append(message).append(COLUMN_DELIMITER);
+        if(hasException()){
+            sb.append(exceptionMessage).append(COLUMN_DELIMITER)
+                    .append(String.join(LINE_DELIMITER, stackTrace));
+        } else {
+            sb.append(COLUMN_DELIMITER);
+        }
+        return sb.toString();
+    }
+
+    public long getEpochNanos(){return epochNanos;}
+    public LogLevel getLevel(){return level;}
+    public String getMessage(){return message;}
+    /** Null when the event had no exception. */
+    public String getExceptionMessage(){return exceptionMessage;}
+    /** Null when the event had no exception. */
+    public List<String> getStackTrace(){return stackTrace;}
+}
@@ -0,0 +1,319 @@
+package com.kovisoft.logger.reader;
+
+import com.kovisoft.logger.exports.LogLevel;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Filters and aggregates TEXT log files, such as every file a logger rolled over the week, in parallel.
+ * Each file is cut into chunks that start and end on line boundaries, every chunk is memory mapped and
+ * scanned by its own fork-join task, and the partial results are merged pairwise in file order, so the
+ * throughput grows with the cores of the pool. Compressed .log.gz files cannot be split, each is read
+ * by a single task.
+ * <pre>
+ * Map&lt;LocalDateTime, Long&gt; errorsPerHour = LogSearch.forLogger(dir, "orders", zone)
+ *         .setLevels(LogLevel.ERROR).countByHour();
+ * </pre>
+ */
+public class LogSearch {
+
+    private static final int ALL_LEVELS = -1;
+
+    private final List<Path> files;
+    private final ZoneId zone;
+    private int levelMask = ALL_LEVELS;
+    private long fromNanos = Long.MIN_VALUE;
+    private long toNanos = Long.MAX_VALUE;
+    private Predicate<LogRecord> filter = null;
+    private ForkJoinPool pool = ForkJoinPool.commonPool();
+    private int chunkBytes = 16 * 1024 * 1024;
+
+    /**
+     * @param zone The zone the logger wrote its Time and Date columns in.
+     */
+    public LogSearch(List<Path> files, ZoneId zone){
+        this.files = List.copyOf(files);
+        this.zone = zone;
+    }
+
+    /**
+     * Every file of the logger in the directory, oldest first by date, hour and index. Rolled, hourly,
+     * numbered and compressed files are all included, index files and other loggers' files are not.
+     */
+    public static LogSearch forLogger(Path directory, String shortName, ZoneId zone) throws IOException {
+        // The names LoggerConfig.fileNameFor gives, plus .gz once compressed.
+        Pattern names = Pattern.compile(Pattern.quote(shortName) + "(\\d{4}-\\d{2}-\\d{2})(?:-(\\d{2}))?(?:\\.(\\d+))?\\.log(?:\\.gz)?");
+        try(Stream<Path> listing = Files.list(directory)){
+            return new LogSearch(listing.filter(path -> names.matcher(path.getFileName().toString()).matches())
+                    .sorted(Comparator.comparingLong(path -> rollOrder(names, path))).toList(), zone);
+        }
+    }
+
+    /**
+     * Name order would put ".10.log" before ".2.log" and "-HH" before the daily file, so the parts are compared instead.
+     */
+    private static long rollOrder(Pattern names, Path path){
+        Matcher matcher = names.matcher(path.getFileName().toString());
+        if(!matcher.matches()) throw new IllegalArgumentException("Not a log file name: " + path);
+        long day = LocalDate.parse(matcher.group(1)).toEpochDay();
+        int hour = matcher.group(2) == null ? -1 : Integer.parseInt(matcher.group(2));
+        int index = matcher.group(3) == null ? 0 : Integer.parseInt(matcher.group(3));
+        return ((day * 25 + hour + 1) << 31) + index;
+    }
+
+    /** Only records at these levels, every level unless set. */
+    public LogSearch setLevels(LogLevel... levels){
+        this.levelMask = levels.length == 0 ? ALL_LEVELS : TextRows.maskOf(EnumSet.copyOf(Arrays.asList(levels)));
+        return this;
+    }
+
+    /** Only records from, inclusive, to to, exclusive. */
+    public LogSearch setRange(Instant from, Instant to){
+        this.fromNanos = from.getEpochSecond() * 1_000_000_000L + from.getNano();
+        this.toNanos = to.getEpochSecond() * 1_000_000_000L + to.getNano();
+        return this;
+    }
+
+    /** Only records the filter accepts, it is called from several threads at once. */
+    public LogSearch setFilter(Predicate<LogRecord> filter){
+        this.filter = filter;
+        return this;
+    }
+
+    /** The pool the chunks are scanned on, the common pool unless set. */
+    public LogSearch setPool(ForkJoinPool pool){
+        this.pool = pool;
+        return this;
+    }
+
+    /** About how much of a file one task scans, 16 MiB unless set. */
+    public LogSearch setChunkBytes(int chunkBytes){
+        if(chunkBytes < 1024) throw new IllegalArgumentException("Chunks must be at least 1024 bytes: " + chunkBytes);
+        this.chunkBytes = chunkBytes;
+        return this;
+    }
+
+    public long count() throws IOException {
+        return aggregate(() -> new long[1], (total, record) -> total[0]++, (a, b) -> {
+            a[0] += b[0];
+            return a;
+        })[0];
+    }
+
+    public Map<LogLevel, Long> countByLevel() throws IOException {
+        return countBy(LogRecord::getLevel, () -> new EnumMap<>(LogLevel.class));
+    }
+
+    /**
+     * Counts per hour, keyed by the start of the hour in the zone.
+     */
+    public SortedMap<LocalDateTime, Long> countByHour() throws IOException {
+        return countBy(record -> LocalDateTime.ofInstant(record.getInstant(), zone).truncatedTo(ChronoUnit.HOURS), TreeMap::new);
+    }
+
+    /**
+     * The k most frequent messages with their counts, most frequent first.
+     */
+    public List<Map.Entry<String, Long>> topMessages(int k) throws IOException {
+        return top(countBy(LogRecord::getMessage, HashMap::new), k);
+    }
+
+    /**
+     * The k most frequent exception messages with their counts, most frequent first. Records without one are skipped.
+     */
+    public List<Map.Entry<String, Long>> topExceptionMessages(int k) throws IOException {
+        Map<String, Long> counts = aggregate(HashMap::new, (map, record) -> {
+            if(record.hasException()) map.merge(record.getExceptionMessage(), 1L, Long::sum);
+        }, LogSearch::mergeCounts);
+        return top(counts, k);
+    }
+
+    private <K, M extends Map<K, Long>> M countBy(Function<LogRecord, K> key, Supplier<M> create) throws IOException {
+        return aggregate(create, (map, record) -> map.merge(key.apply(record), 1L, Long::sum), LogSearch::mergeCounts);
+    }
+
+    private static <K, M extends Map<K, Long>> M mergeCounts(M a, M b){
+        if(a.size() < b.size()){
+            M swap = a;
+            a = b;
+            b = swap;
+        }
+        for(Map.Entry<K, Long> entry : b.entrySet()){
+            a.merge(entry.getKey(), entry.getValue(), Long::sum);
+        }
+        return a;
+    }
+
+    private static List<Map.Entry<String, Long>> top(Map<String, Long> counts, int k){
+        return counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(k)
+                .map(entry -> Map.entry(entry.getKey(), entry.getValue()))
+                .toList();
+    }
+
+    /**
+     * Folds every matching record into a result. Each task starts from create() and adds its records in file order,
+     * the results of neighbouring chunks are then merged, earlier chunk first.
+     */
+    public <A> A aggregate(Supplier<A> create, BiConsumer<A, LogRecord> add, BinaryOperator<A> merge) throws IOException {
+        List<Chunk> chunks = chunks();
+        if(chunks.isEmpty()) return create.get();
+        try{
+            return pool.invoke(new ScanTask<>(chunks, 0, chunks.size(), create, add, merge));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private record Chunk(Path file, long start, long end, boolean compressed){}
+
+    private List<Chunk> chunks() throws IOException {
+        List<Chunk> chunks = new ArrayList<>();
+        for(Path file : files){
+            if(file.getFileName().toString().endsWith(".gz")){
+                chunks.add(new Chunk(file, 0, -1, true));
+                continue;
+            }
+            try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)){
+                long size = channel.size();
+                long start = 0;
+                while(start < size){
+                    long end = start + chunkBytes >= size ? size : nextLineStart(channel, start + chunkBytes, size);
+                    chunks.add(new Chunk(file, start, end, false));
+                    start = end;
+                }
+            }
+        }
+        return chunks;
+    }
+
+    /**
+     * The start of the first line beginning at or after position, or size if there is none.
+     */
+    private static long nextLineStart(FileChannel channel, long position, long size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        long at = position - 1;
+        while(at < size){
+            buffer.clear();
+            int read = channel.read(buffer, at);
+            if(read < 0) break;
+            for(int i = 0; i < read; i++){
+                if(buffer.get(i) == '\n') return at + i + 1;
+            }
+            at += read;
+        }
+        return size;
+    }
+
+    private boolean accepts(LogRecord record){
+        if(record == null) return false;
+        long nanos = record.getEpochNanos();
+        return nanos >= fromNanos && nanos < toNanos && (filter == null || filter.test(record));
+    }
+
+    private final class ScanTask<A> extends RecursiveTask<A> {
+        private static final long serialVersionUID = 1L;
+        // Serializable only through RecursiveTask, a scan never leaves the pool it runs in.
+        private final transient List<Chunk> chunks;
+        private final int from;
+        private final int to;
+        private final transient Supplier<A> create;
+        private final transient BiConsumer<A, LogRecord> add;
+        private final transient BinaryOperator<A> merge;
+
+        ScanTask(List<Chunk> chunks, int from, int to, Supplier<A> create, BiConsumer<A, LogRecord> add, BinaryOperator<A> merge){
+            this.chunks = chunks;
+            this.from = from;
+            this.to = to;
+            this.create = create;
+            this.add = add;
+            this.merge = merge;
+        }
+
+        @Override
+        protected A compute() {
+            if(to - from == 1){
+                try{
+                    return scan(chunks.get(from));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            int middle = (from + to) >>> 1;
+            ScanTask<A> first = new ScanTask<>(chunks, from, middle, create, add, merge);
+            first.fork();
+            A second = new ScanTask<>(chunks, middle, to, create, add, merge).compute();
+            return merge.apply(first.join(), second);
+        }
+
+        private A scan(Chunk chunk) throws IOException {
+            A result = create.get();
+            TextRows rows = new TextRows(zone);
+            if(chunk.compressed){
+                try(BufferedReader reader = new BufferedReader(new InputStreamReader(
+                        new GZIPInputStream(Files.newInputStream(chunk.file), 64 * 1024), StandardCharsets.UTF_8))){
+                    String line;
+                    while((line = reader.readLine()) != null){
+                        LogRecord record = rows.parse(line, levelMask);
+                        if(accepts(record)) add.accept(result, record);
+                    }
+                }
+                return result;
+            }
+            MappedByteBuffer region;
+            try(FileChannel channel = FileChannel.open(chunk.file, StandardOpenOption.READ)){
+                region = channel.map(FileChannel.MapMode.READ_ONLY, chunk.start, chunk.end - chunk.start);
+            }
+            byte[] line = new byte[1024];
+            int lineStart = 0;
+            // A last line without its separator is still being written and is left out.
+            for(int i = 0; i < region.limit(); i++){
+                if(region.get(i) != '\n') continue;
+                int length = (i > lineStart && region.get(i - 1) == '\r' ? i - 1 : i) - lineStart;
+                if(length > line.length) line = new byte[Math.max(length, line.length * 2)];
+                region.get(lineStart, line, 0, length);
+                LogRecord record = rows.parse(new String(line, 0, length, StandardCharsets.UTF_8), levelMask);
+                if(accepts(record)) add.accept(result, record);
+                lineStart = i + 1;
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.kovisoft.logger.reader;
+
+import com.kovisoft.logger.exports.LogLevel;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static com.kovisoft.logger.loggerImpl.LoggerImpl.COLUMN_DELIMITER;
+import static com.kovisoft.logger.loggerImpl.LoggerImpl.LINE_DELIMITER;
+
+/**
+ * Turns rows of a TEXT log file back into LogRecords. Rows of one file mostly share a date,
+ * so the last one parsed is kept. Not thread safe, one per reader or task.
+ */
+final class TextRows {
+
+    private static final LogLevel[] LEVELS = LogLevel.values();
+
+    private final ZoneId zone;
+    private String lastDateColumn;
+    private LocalDate lastDate;
+
+    TextRows(ZoneId zone){
+        this.zone = zone;
+    }
+
+    static int maskOf(Set<LogLevel> levels){
+        int mask = 0;
+        for(LogLevel level : levels){
+            mask |= 1 << level.ordinal();
+        }
+        return mask;
+    }
+
+    /**
+     * @return The row as a record, or null for the header, a row at a level outside the mask or anything that is not a row.
+     */
+    LogRecord parse(String line, int levelMask){
+        String[] columns = line.split(COLUMN_DELIMITER, -1);
+        if(columns.length < 6) return null;
+        LogLevel level = levelFor(columns[2]);
+        if(level == null || (levelMask & 1 << level.ordinal()) == 0) return null;
+        long epochNanos;
+        try{
+            if(!columns[1].equals(lastDateColumn)){
+                lastDate = LocalDate.parse(columns[1]);
+                lastDateColumn = columns[1];
+            }
+            LocalTime time = LocalTime.parse(columns[0]);
+            epochNanos = lastDate.atTime(time).atZone(zone).toEpochSecond() * 1_000_000_000L + time.getNano();
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+        // A message holding the delimiter itself ends up spread over more columns, the last two are always the exception.
+        int exceptionColumn = columns.length - 2;
+        String message = columns.length == 6 ? columns[3]
+                : String.join(COLUMN_DELIMITER, Arrays.copyOfRange(columns, 3, exceptionColumn));
+        String stackTrace = columns[exceptionColumn + 1];
+        if(columns[exceptionColumn].isEmpty() && stackTrace.isEmpty()){
+            return new LogRecord(epochNanos, level, message, null, null);
+        }
+        return new LogRecord(epochNanos, level, message, columns[exceptionColumn],
+                stackTrace.isEmpty() ? List.of() : List.of(stackTrace.split(LINE_DELIMITER, -1)));
+    }
+
+    private static LogLevel levelFor(String label){
+        for(LogLevel level : LEVELS){
+            if(level.getLabel().equals(label)) return level;
+        }
+        return null;
+    }
+}
@@ -1,3 +1,6 @@
 module Logger {
+    requires java.management;
     exports com.kovisoft.logger.exports;
+    exports com.kovisoft.logger.config;
+    exports com.kovisoft.logger.reader;
 }
\ No newline at end of file
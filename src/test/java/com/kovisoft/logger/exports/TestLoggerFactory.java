@@ -1,5 +1,7 @@
 package com.kovisoft.logger.exports;
 
+import com.kovisoft.logger.config.LoggerConfig;
+import com.kovisoft.logger.loggerImpl.LoggerImpl;
 import org.junit.jupiter.api.*;
 
 import java.io.File;
@@ -10,6 +12,11 @@ import java.nio.file.Paths;
 import java.security.SecureRandom;
 import java.time.LocalDate;
 import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -140,6 +147,68 @@ public class TestLoggerFactory {
                 .removeLogger(LoggerFactory.getLogger(shortName));});
     }
 
+    @Test
+    public void test_createLogger_concurrent() throws InterruptedException {
+        String shortName = "log" +random.nextLong(10000, 10000000);
+        int threads = 16;
+        Set<Logger> created = ConcurrentHashMap.newKeySet();
+        List<Exception> failures = new CopyOnWriteArrayList<>();
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        for(int i = 0; i < threads; i++){
+            new Thread(() -> {
+                try{
+                    start.await();
+                    created.add(LoggerFactory.createLogger(dirPath.toString(), shortName));
+                    created.add(LoggerFactory.getLogger(shortName + ".log"));
+                } catch (Exception e) {
+                    failures.add(e);
+                } finally {
+                    done.countDown();
+                }
+            }).start();
+        }
+        start.countDown();
+        done.await();
+        assertEquals(List.of(), failures);
+        assertEquals(1, created.size());
+        Logger logger = created.iterator().next();
+        assertSame(logger, LoggerFactory.getLoggerByPath(dirPath + "/" + shortName));
+        assertDoesNotThrow(()->{LoggerFactory.getLogManager().removeLogger(logger);});
+        assertNull(LoggerFactory.getLogger(shortName + ".log"));
+    }
+
+    @Test
+    public void test_setLevel(){
+        String shortName = "log" +random.nextLong(10000, 10000000);
+        assertDoesNotThrow(()->{LoggerFactory.createLogger(dirPath.toString(), shortName);});
+        Logger logger = LoggerFactory.getLogger(shortName);
+        assertTrue(logger.isInfoEnabled());
+        assertTrue(LoggerFactory.getLogManager().setLevel(shortName, LogLevel.WARN));
+        assertEquals(LogLevel.WARN, logger.getLevel());
+        assertTrue(logger.isErrorEnabled());
+        assertTrue(logger.isWarnEnabled());
+        assertFalse(logger.isLogEnabled());
+        assertFalse(logger.isInfoEnabled());
+        assertNotSame(logger.info, logger.warn);
+        assertSame(logger.info, logger.log);
+        assertFalse(LoggerFactory.getLogManager().setLevel("missing" + shortName, LogLevel.WARN));
+        assertDoesNotThrow(()->{LoggerFactory.getLogManager().removeLogger(logger);});
+    }
+
+    @Test
+    public void test_addLogger_replacesCachedLookups() throws Exception {
+        String shortName = "log" +random.nextLong(10000, 10000000);
+        Logger replaced = LoggerFactory.createLogger(dirPath.toString(), shortName);
+        assertSame(replaced, LoggerFactory.getLogger(shortName + ".log"));
+        assertSame(replaced, LoggerFactory.getLoggerByPath(dirPath + "/" + shortName));
+        Logger logger = LoggerFactory.getLogManager().addLogger(new LoggerImpl(new LoggerConfig(dirPath.toString(), shortName)));
+        assertSame(logger, LoggerFactory.getLogger(shortName + ".log"));
+        assertSame(logger, LoggerFactory.getLoggerByPath(dirPath + "/" + shortName));
+        assertTrue(replaced.stopRunning());
+        assertDoesNotThrow(()->{LoggerFactory.getLogManager().removeLogger(logger);});
+    }
+
     @Test
     public void test_getLogger_logpath2(){
         String shortName = "log" +random.nextLong(10000, 10000000);
@@ -0,0 +1,228 @@
+package com.kovisoft.logger.loggerImpl;
+
+import com.kovisoft.logger.config.AppenderConfig;
+import com.kovisoft.logger.config.LogFormat;
+import com.kovisoft.logger.config.LoggerConfig;
+import com.kovisoft.logger.config.Sink;
+import com.kovisoft.logger.exports.LogLevel;
+import com.kovisoft.logger.exports.Logger;
+import com.kovisoft.logger.exports.TestLoggerFactory;
+import org.junit.jupiter.api.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestAppenders {
+
+    static final String userdir = System.getProperty("user.dir");
+    static final Path dirPath = Paths.get(userdir, "test/appenderLogs");
+
+    @BeforeAll
+    public static void setupEnvironment(){
+        try{
+            TestLoggerFactory.deleteDirectory(dirPath);
+        } catch (IOException e) {
+            System.out.println("Could not delete directory!");
+        }
+    }
+
+    @AfterAll
+    public static void teardownEnvironment(){
+        assertDoesNotThrow(()->TestLoggerFactory.deleteDirectory(dirPath));
+    }
+
+    /**
+     * A local stand-in for a TCP collector, keeps every line it receives.
+     */
+    private static final class Collector implements AutoCloseable {
+        final ServerSocket server = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+        final List<String> lines = new CopyOnWriteArrayList<>();
+        final Thread thread = new Thread(this::accept);
+
+        Collector() throws IOException {
+            thread.start();
+        }
+
+        private void accept(){
+            try(Socket socket = server.accept();
+                BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8))){
+                String line;
+                while((line = reader.readLine()) != null) lines.add(line);
+            } catch (IOException ignored) {
+                // Closed by the test.
+            }
+        }
+
+        @Override
+        public void close() throws Exception {
+            thread.join(5000);
+            server.close();
+        }
+    }
+
+    @Test
+    public void test_tcpAndUdp_getTheFileLines() throws Exception {
+        try(Collector collector = new Collector(); DatagramSocket udp = new DatagramSocket(0, InetAddress.getLoopbackAddress())){
+            Logger logger = new LoggerImpl(new LoggerConfig(dirPath.toString(), "fanOut")
+                    .addAppender(AppenderConfig.tcp("localhost", collector.server.getLocalPort()).setLevel(LogLevel.WARN))
+                    .addAppender(AppenderConfig.udp("localhost", udp.getLocalPort()).setLevel(LogLevel.ERROR)));
+            logger.info("routine {}", 1);
+            logger.warn("careful {}", 2);
+            logger.error("broken", new IllegalStateException("boom"));
+            assertTrue(logger.stopRunning());
+            collector.close();
+
+            List<String> file = Files.readAllLines(logger.getFile().toPath());
+            assertEquals(4, file.size());
+            assertEquals(file.subList(2, 4), collector.lines);
+
+            udp.setSoTimeout(5000);
+            DatagramPacket packet = new DatagramPacket(new byte[65_536], 65_536);
+            udp.receive(packet);
+            assertEquals(file.get(3) + "\n", new String(packet.getData(), 0, packet.getLength(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void test_slowAppender_doesNotStallTheFile() throws Exception {
+        CountDownLatch stuck = new CountDownLatch(1);
+        List<String> received = new CopyOnWriteArrayList<>();
+        Sink slow = new Sink() {
+            @Override
+            public void write(byte[] line) throws IOException {
+                try{
+                    stuck.await();
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+                received.add(new String(line, StandardCharsets.UTF_8));
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        Logger logger = new LoggerImpl(new LoggerConfig(dirPath.toString(), "slow")
+                .addAppender(AppenderConfig.custom("slow", slow).setQueueCapacity(16)));
+        for(int i = 0; i < 1000; i++) logger.info("event {}", i);
+        long deadline = System.currentTimeMillis() + 5000;
+        while(logger.getMetrics().getEventsWritten() < 1000 && System.currentTimeMillis() < deadline) Thread.sleep(5);
+        assertTrue(logger.getMetrics().getEventsWritten() >= 1000);
+        stuck.countDown();
+        assertTrue(logger.stopRunning());
+
+        List<String> file = new ArrayList<>(Files.readAllLines(logger.getFile().toPath()));
+        assertTrue(file.stream().anyMatch(line -> line.contains("Appender slow dropped")), String.join("\n", file));
+        // What the thread had taken when the sink got stuck plus what fitted in the queue, the rest was dropped.
+        assertTrue(received.size() < 100, "received " + received.size());
+        assertEquals(file.get(1) + "\n", received.get(0));
+    }
+
+    @Test
+    public void test_unreachableCollector_dropsQuietly() throws Exception {
+        int port;
+        try(ServerSocket closed = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())){
+            port = closed.getLocalPort();
+        }
+        Logger logger = new LoggerImpl(new LoggerConfig(dirPath.toString(), "unreachable")
+                .addAppender(AppenderConfig.tcp("localhost", port)));
+        for(int i = 0; i < 100; i++) logger.info("event {}", i);
+        assertTrue(logger.stopRunning());
+        // The drops are only summarised in the file if the appender got to them before the writer let go.
+        assertEquals(100, Files.readAllLines(logger.getFile().toPath()).stream().filter(line -> line.contains("\tevent ")).count());
+    }
+
+    @Test
+    public void test_traceReferences_appendersGetFullTraces() throws Exception {
+        List<String> received = new CopyOnWriteArrayList<>();
+        Sink collecting = new Sink() {
+            @Override
+            public void write(byte[] line) {
+                received.add(new String(line, StandardCharsets.UTF_8));
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        Logger logger = new LoggerImpl(new LoggerConfig(dirPath.toString(), "references").setStackTraceReferences(true)
+                .addAppender(AppenderConfig.custom("errors", collecting).setLevel(LogLevel.ERROR)));
+        Exception e = new IllegalStateException("again");
+        // The appender filters this one out, it is where the file writes the trace in full.
+        logger.warn("first", e);
+        logger.error("second", e);
+        logger.error("third", e);
+        assertTrue(logger.stopRunning());
+
+        List<String> file = Files.readAllLines(logger.getFile().toPath());
+        assertTrue(file.get(2).contains("see trace #"), file.get(2));
+        assertEquals(2, received.size());
+        for(String line : received){
+            assertFalse(line.contains("see trace #"), line);
+            assertTrue(line.contains(e.getStackTrace()[0].toString()), line);
+        }
+    }
+
+    @Test
+    public void test_stuckSink_closedByItsOwnThread() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        AtomicBoolean inWrite = new AtomicBoolean();
+        AtomicBoolean closedUnderWrite = new AtomicBoolean();
+        AtomicReference<Thread> closedBy = new AtomicReference<>();
+        Sink stuck = new Sink() {
+            @Override
+            public void write(byte[] line) throws IOException {
+                inWrite.set(true);
+                writing.countDown();
+                try{
+                    new CountDownLatch(1).await();
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                } finally {
+                    inWrite.set(false);
+                }
+            }
+
+            @Override
+            public void close() {
+                closedUnderWrite.set(inWrite.get());
+                closedBy.set(Thread.currentThread());
+            }
+        };
+        Appender appender = new Appender("stuck", AppenderConfig.custom("stuck", stuck), () -> {});
+        appender.offer("first\n".getBytes(StandardCharsets.UTF_8));
+        appender.offer("second\n".getBytes(StandardCharsets.UTF_8));
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+        assertFalse(appender.close(100));
+        assertNotNull(closedBy.get());
+        assertNotSame(Thread.currentThread(), closedBy.get());
+        assertFalse(closedUnderWrite.get());
+        // The interrupted write and the line still queued behind it.
+        assertEquals(2, appender.dropped());
+    }
+
+    @Test
+    public void test_binary_rejected() {
+        assertThrows(IllegalArgumentException.class, () -> new LoggerImpl(new LoggerConfig(dirPath.toString(), "binary")
+                .setFormat(LogFormat.BINARY).addAppender(AppenderConfig.console())));
+    }
+}
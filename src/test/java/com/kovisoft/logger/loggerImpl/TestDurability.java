@@ -0,0 +1,106 @@
+package com.kovisoft.logger.loggerImpl;
+
+import com.kovisoft.logger.config.FlushPolicy;
+import com.kovisoft.logger.config.LoggerConfig;
+import com.kovisoft.logger.config.OutputType;
+import com.kovisoft.logger.exports.LogLevel;
+import com.kovisoft.logger.exports.Logger;
+import com.kovisoft.logger.exports.TestLoggerFactory;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestDurability {
+
+    static final String userdir = System.getProperty("user.dir");
+    static final Path dirPath = Paths.get(userdir, "test/durableLogs");
+
+    @BeforeAll
+    public static void setupEnvironment(){
+        try{
+            TestLoggerFactory.deleteDirectory(dirPath);
+        } catch (IOException e) {
+            System.out.println("Could not delete directory!");
+        }
+    }
+
+    @AfterAll
+    public static void teardownEnvironment(){
+        assertDoesNotThrow(()->TestLoggerFactory.deleteDirectory(dirPath));
+    }
+
+    // Nothing is flushed unless a sync asks for it, so a line in the file was put there by the sync.
+    private static LoggerConfig unflushed(String name){
+        return new LoggerConfig(dirPath.toString(), name).setFlushPolicy(new FlushPolicy().setFlushOnEmpty(false));
+    }
+
+    private static long linesContaining(Logger logger, String text) throws IOException {
+        return Files.readAllLines(logger.getFile().toPath()).stream().filter(line -> line.contains(text)).count();
+    }
+
+    @Test
+    public void test_syncCoversEverythingLoggedBefore() throws Exception {
+        Logger logger = new LoggerImpl(unflushed("tickets").setDedicatedWriter(true));
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try{
+            List<Future<?>> callers = new ArrayList<>();
+            for(int t = 0; t < 8; t++){
+                final int thread = t;
+                callers.add(executor.submit(() -> {
+                    for(int i = 0; i < 50; i++){
+                        logger.error("thread " + thread + " failure " + i);
+                        logger.sync().join();
+                        assertEquals(1, linesContaining(logger, "thread " + thread + " failure " + i + "\t"));
+                    }
+                    return null;
+                }));
+            }
+            for(Future<?> caller : callers) caller.get(30, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdown();
+        }
+        assertTrue(logger.stopRunning());
+        assertEquals(400, linesContaining(logger, "failure"));
+    }
+
+    @Test
+    public void test_syncLevel_forcesBatch() throws Exception {
+        for(OutputType type : OutputType.values()){
+            Logger logger = new LoggerImpl(unflushed("level" + type).setOutputType(type)
+                    .setFlushPolicy(new FlushPolicy().setFlushOnEmpty(false).setSyncLevel(LogLevel.ERROR)));
+            logger.info("before the error");
+            logger.error("the error");
+            long deadline = System.currentTimeMillis() + 5000;
+            while(linesContaining(logger, "the error") == 0 && System.currentTimeMillis() < deadline) Thread.sleep(5);
+            assertEquals(1, linesContaining(logger, "before the error"), type.toString());
+            assertEquals(1, linesContaining(logger, "\tthe error\t"), type.toString());
+            // Nothing was logged since, there is nothing left to wait for.
+            logger.sync().get(5, TimeUnit.SECONDS);
+            assertTrue(logger.stopRunning());
+        }
+    }
+
+    @Test
+    public void test_syncAfterClose_fails() throws Exception {
+        Logger logger = new LoggerImpl(unflushed("closed"));
+        logger.error("last words");
+        CompletableFuture<Void> before = logger.sync();
+        assertTrue(logger.stopRunning());
+        assertDoesNotThrow(() -> before.get(5, TimeUnit.SECONDS));
+        CompletionException failure = assertThrows(CompletionException.class, () -> logger.sync().join());
+        assertInstanceOf(IllegalStateException.class, failure.getCause());
+    }
+}
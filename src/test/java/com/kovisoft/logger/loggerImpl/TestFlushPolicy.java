@@ -0,0 +1,96 @@
+package com.kovisoft.logger.loggerImpl;
+
+import com.kovisoft.logger.config.FlushPolicy;
+import com.kovisoft.logger.config.LoggerConfig;
+import com.kovisoft.logger.exports.TestLoggerFactory;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestFlushPolicy {
+
+    static final String userdir = System.getProperty("user.dir");
+    static final Path dirPath = Paths.get(userdir, "test/flushLogs");
+
+    @BeforeAll
+    public static void setupEnvironment(){
+        try{
+            TestLoggerFactory.deleteDirectory(dirPath);
+        } catch (IOException e) {
+            System.out.println("Could not delete directory!");
+        }
+    }
+
+    @AfterAll
+    public static void teardownEnvironment(){
+        assertDoesNotThrow(()->TestLoggerFactory.deleteDirectory(dirPath));
+    }
+
+    private static long waitForSize(LoggerImpl logger, long atLeast, long timeoutMillis) throws Exception {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        long size;
+        while((size = Files.size(logger.getFile().toPath())) < atLeast && System.currentTimeMillis() < deadline) Thread.sleep(5);
+        return size;
+    }
+
+    @Test
+    public void test_maxBytes() throws Exception {
+        LoggerImpl logger = new LoggerImpl(new LoggerConfig(dirPath.toString(), "bytes")
+                .setFlushPolicy(new FlushPolicy().setFlushOnEmpty(false).setMaxBytes(4096)));
+        logger.info("small");
+        Thread.sleep(100);
+        assertEquals(0, Files.size(logger.getFile().toPath()));
+        for(int i = 0; i < 100; i++) logger.info("event {} {}", i, "x".repeat(100));
+        long size = waitForSize(logger, 4096, 5000);
+        assertTrue(size >= 4096, "size " + size);
+        assertTrue(logger.stopRunning());
+        assertEquals(102, Files.readAllLines(logger.getFile().toPath()).size());
+    }
+
+    /**
+     * The writer this logger shares is kept busy by a neighbour the whole time, the deadline still has to fire.
+     */
+    @Test
+    public void test_maxMillis_underContinuousLoad() throws Exception {
+        LoggerImpl hot = new LoggerImpl(new LoggerConfig(dirPath.toString(), "hot")
+                .setFlushPolicy(new FlushPolicy().setMaxEvents(1)));
+        List<LoggerImpl> others = new ArrayList<>();
+        LoggerImpl timed = null;
+        while(timed == null){
+            LoggerImpl candidate = new LoggerImpl(new LoggerConfig(dirPath.toString(), "timed" + others.size())
+                    .setFlushPolicy(new FlushPolicy().setFlushOnEmpty(false).setMaxMillis(50)));
+            if(candidate.writer() == hot.writer()) timed = candidate;
+            else others.add(candidate);
+        }
+        for(LoggerImpl other : others) assertTrue(other.stopRunning());
+
+        AtomicBoolean producing = new AtomicBoolean(true);
+        LoggerImpl neighbour = hot;
+        Thread producer = new Thread(() -> {
+            while(producing.get()) neighbour.info("busy {}", 1);
+        });
+        producer.start();
+        try{
+            for(int round = 0; round < 3; round++){
+                long before = Files.size(timed.getFile().toPath());
+                timed.info("round {}", round);
+                long start = System.nanoTime();
+                assertTrue(waitForSize(timed, before + 1, 2000) > before, "round " + round);
+                assertTrue(System.nanoTime() - start < 1_000_000_000L);
+            }
+        } finally {
+            producing.set(false);
+            producer.join();
+        }
+        assertTrue(timed.stopRunning());
+        assertTrue(hot.stopRunning());
+    }
+}
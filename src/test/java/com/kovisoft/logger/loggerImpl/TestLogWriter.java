@@ -0,0 +1,76 @@
+package com.kovisoft.logger.loggerImpl;
+
+import com.kovisoft.logger.config.FlushPolicy;
+import com.kovisoft.logger.config.LoggerConfig;
+import com.kovisoft.logger.exports.TestLoggerFactory;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestLogWriter {
+
+    static final String userdir = System.getProperty("user.dir");
+    static final Path dirPath = Paths.get(userdir, "test/writerLogs");
+
+    @BeforeAll
+    public static void setupEnvironment(){
+        try{
+            TestLoggerFactory.deleteDirectory(dirPath);
+        } catch (IOException e) {
+            System.out.println("Could not delete directory!");
+        }
+    }
+
+    @AfterAll
+    public static void teardownEnvironment(){
+        assertDoesNotThrow(()->TestLoggerFactory.deleteDirectory(dirPath));
+    }
+
+    /**
+     * A logger that never lets its shared writer go idle must not keep another logger on it from detaching.
+     */
+    @Test
+    public void test_stopWhileNeighbourIsHot() throws Exception {
+        // Flushing every event makes the writer the bottleneck, so its queue is never found empty.
+        LoggerImpl hot = new LoggerImpl(new LoggerConfig(dirPath.toString(), "hot")
+                .setFlushPolicy(new FlushPolicy().setMaxEvents(1)));
+        List<LoggerImpl> others = new ArrayList<>();
+        LoggerImpl quiet = null;
+        while(quiet == null){
+            LoggerImpl candidate = new LoggerImpl(new LoggerConfig(dirPath.toString(), "quiet" + others.size()));
+            if(candidate.writer() == hot.writer()) quiet = candidate;
+            else others.add(candidate);
+        }
+        for(LoggerImpl other : others) assertTrue(other.stopRunning());
+
+        AtomicBoolean producing = new AtomicBoolean(true);
+        List<Thread> producers = new ArrayList<>();
+        for(int t = 0; t < 4; t++){
+            Thread producer = new Thread(() -> {
+                while(producing.get()) hot.info("busy {}", 1);
+            });
+            producer.start();
+            producers.add(producer);
+        }
+        try{
+            Thread.sleep(50);
+            quiet.info("last words");
+            long start = System.nanoTime();
+            assertTrue(quiet.stopRunning());
+            assertTrue(System.nanoTime() - start < 2_000_000_000L, "detaching took until the timeout");
+            assertTrue(Files.readAllLines(quiet.getFile().toPath()).get(1).contains("last words"));
+        } finally {
+            producing.set(false);
+            for(Thread producer : producers) producer.join();
+        }
+        assertTrue(hot.stopRunning());
+    }
+}
@@ -9,6 +9,7 @@ import java.io.IOException;
 import java.lang.reflect.Field;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.ArrayList;
@@ -23,6 +24,7 @@ public class TestLoggerImpl {
     static final String outputDir = "test/implLogs";
     static final String SHORT_NAME = "implTest";
     static Logger logger;
+    static final TestRollingPolicy.TestClock clock = new TestRollingPolicy.TestClock();
     static ArrayList<String> logged = new ArrayList<>();
     static String LOG_HEADER;
     static String LOG;
@@ -35,7 +37,7 @@ public class TestLoggerImpl {
         } catch (IOException e) {
             System.out.println("Could not delete directory!");
         }
-        LoggerConfig loggerConfig = new LoggerConfig(userdir + "/" + outputDir, SHORT_NAME);
+        LoggerConfig loggerConfig = new LoggerConfig(userdir + "/" + outputDir, SHORT_NAME).setClock(clock);
         Assertions.assertDoesNotThrow(()->{
             logger = new LoggerImpl(loggerConfig);
         });
@@ -57,7 +59,7 @@ public class TestLoggerImpl {
     }
 
     @Test
-    @Order(11) // Not an after all because it has some useful tests, maybe split this out latter.
+    @Order(20) // Not an after all because it has some useful tests, maybe split this out latter.
     public void teardownEnvironment(){
         List<String> lines = List.of();
         try{
@@ -210,4 +212,51 @@ public class TestLoggerImpl {
                 e.getMessage(), getStackTraceAsString(e)));
     }
 
+    @Test
+    @Order(11)
+    public void test_info_pattern(){
+        Assertions.assertDoesNotThrow(()->logger.info("Logging Info with {} and {}", 2, "arguments"));
+        LocalDateTime timeStamp = LocalDateTime.now(ZoneId.of("America/New_York"));
+        logged.add(String.format(LOG, timeStamp.toLocalTime(), timeStamp.toLocalDate(), "Info",
+                "Logging Info with 2 and arguments"));
+    }
+
+    @Test
+    @Order(12)
+    public void test_log_pattern_varargs(){
+        Assertions.assertDoesNotThrow(()->logger.log("Logging {} {} {} {} {}", "Log", "with", "four", "arguments"));
+        LocalDateTime timeStamp = LocalDateTime.now(ZoneId.of("America/New_York"));
+        logged.add(String.format(LOG, timeStamp.toLocalTime(), timeStamp.toLocalDate(), "Log",
+                "Logging Log with four arguments {}"));
+    }
+
+    @Test
+    @Order(13)
+    public void test_warn_supplier(){
+        String test = "Logging Warn from a supplier";
+        Assertions.assertDoesNotThrow(()->logger.warn(() -> test));
+        LocalDateTime timeStamp = LocalDateTime.now(ZoneId.of("America/New_York"));
+        logged.add(String.format(LOG, timeStamp.toLocalTime(), timeStamp.toLocalDate(), "Warn", test));
+    }
+
+    @Test
+    @Order(14)
+    public void test_rollover_keepsLogger() throws Exception {
+        Assertions.assertFalse(logger.needNewLog());
+        // Past the days to log for the writer's check, back to today once it works out the next file.
+        clock.jumpOnce(Duration.ofDays(logger.getDaysToLog() + 2L));
+        String test = "Logging Info across a rollover";
+        logger.info(test);
+        LocalDateTime timeStamp = LocalDateTime.now(ZoneId.of("America/New_York"));
+        logged.add(String.format(LOG, timeStamp.toLocalTime(), timeStamp.toLocalDate(), "Info", test));
+        long deadline = System.currentTimeMillis() + 5000;
+        while(!clock.jumped() && System.currentTimeMillis() < deadline){
+            Thread.sleep(10);
+        }
+        // Rolled over to today's file, which is the one already open, so the header is not written again.
+        Assertions.assertTrue(clock.jumped());
+        Assertions.assertFalse(logger.needNewLog());
+        Assertions.assertTrue(logger.getFile().getName().endsWith(LocalDateTime.now().toLocalDate() + ".log"));
+    }
+
 }
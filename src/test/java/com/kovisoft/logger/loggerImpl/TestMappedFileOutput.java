@@ -0,0 +1,63 @@
+package com.kovisoft.logger.loggerImpl;
+
+import com.kovisoft.logger.exports.TestLoggerFactory;
+import org.junit.jupiter.api.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestMappedFileOutput {
+
+    static final String userdir = System.getProperty("user.dir");
+    static final Path dirPath = Paths.get(userdir, "test/mappedLogs");
+
+    @BeforeAll
+    public static void setupEnvironment() throws IOException {
+        if(Files.exists(dirPath)) TestLoggerFactory.deleteDirectory(dirPath);
+        Files.createDirectories(dirPath);
+    }
+
+    @AfterAll
+    public static void teardownEnvironment() throws IOException {
+        TestLoggerFactory.deleteDirectory(dirPath);
+    }
+
+    @Test
+    public void test_write_across_regions_and_truncate() throws IOException {
+        File file = dirPath.resolve("regions.log").toFile();
+        assertTrue(file.createNewFile());
+        List<String> lines = new ArrayList<>();
+        MappedFileOutput output = new MappedFileOutput(file, 4096);
+        for(int i = 0; i < 500; i++){
+            String line = "Line " + i + " with some unicode \u00e9\u4e2d " + "x".repeat(i % 50);
+            lines.add(line);
+            output.write(ByteBuffer.wrap((line + System.lineSeparator()).getBytes(StandardCharsets.UTF_8)));
+        }
+        long size = output.size();
+        output.close();
+        assertEquals(size, Files.size(file.toPath()));
+        assertEquals(lines, Files.readAllLines(file.toPath(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void test_reopen_skips_zero_padding() throws IOException {
+        File file = dirPath.resolve("padded.log").toFile();
+        Files.write(file.toPath(), ("first" + System.lineSeparator()).getBytes(StandardCharsets.UTF_8));
+        // What an unclean shutdown leaves behind, the rest of the last mapped region.
+        Files.write(file.toPath(), new byte[8192], StandardOpenOption.APPEND);
+        MappedFileOutput output = new MappedFileOutput(file, 4096);
+        output.write(ByteBuffer.wrap(("second" + System.lineSeparator()).getBytes(StandardCharsets.UTF_8)));
+        output.close();
+        assertEquals(List.of("first", "second"), Files.readAllLines(file.toPath(), StandardCharsets.UTF_8));
+    }
+}
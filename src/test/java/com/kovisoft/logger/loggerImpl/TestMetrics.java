@@ -0,0 +1,113 @@
+package com.kovisoft.logger.loggerImpl;
+
+import com.kovisoft.logger.config.LoggerConfig;
+import com.kovisoft.logger.exports.LogManager;
+import com.kovisoft.logger.exports.Logger;
+import com.kovisoft.logger.exports.LoggerFactory;
+import com.kovisoft.logger.exports.LoggerMetrics;
+import com.kovisoft.logger.exports.TestLoggerFactory;
+import org.junit.jupiter.api.*;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestMetrics {
+
+    static final String userdir = System.getProperty("user.dir");
+    static final Path dirPath = Paths.get(userdir, "test/metricLogs");
+
+    @BeforeAll
+    public static void setupEnvironment(){
+        try{
+            TestLoggerFactory.deleteDirectory(dirPath);
+        } catch (IOException e) {
+            System.out.println("Could not delete directory!");
+        }
+    }
+
+    @AfterAll
+    public static void teardownEnvironment(){
+        assertDoesNotThrow(()->TestLoggerFactory.deleteDirectory(dirPath));
+    }
+
+    @Test
+    public void test_histogram_percentiles(){
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.valueAt(50));
+        for(long i = 1; i <= 1_000_000; i++){
+            histogram.record(i);
+        }
+        assertEquals(1_000_000, histogram.count());
+        assertEquals(1_000_000, histogram.max());
+        assertEquals(500_000, histogram.valueAt(50), 500_000 / 16.0);
+        assertEquals(990_000, histogram.valueAt(99), 990_000 / 16.0);
+        assertEquals(1_000_000, histogram.valueAt(100));
+        histogram.reset();
+        assertEquals(0, histogram.count());
+    }
+
+    @Test
+    public void test_histogram_buckets(){
+        for(long value : new long[]{0, 1, 15, 16, 17, 1000, 123_456_789, Long.MAX_VALUE}){
+            long highest = LatencyHistogram.highestValue(LatencyHistogram.index(value));
+            assertTrue(highest >= value && highest - value <= value / 16, value + " " + highest);
+        }
+    }
+
+    @Test
+    public void test_loggerMetrics() throws Exception {
+        Logger logger = new LoggerImpl(new LoggerConfig(dirPath.toString(), "metrics"));
+        for(int i = 0; i < 1000; i++){
+            logger.info("event {}", i);
+        }
+        assertTrue(logger.stopRunning());
+        LoggerMetrics metrics = logger.getMetrics();
+        assertEquals(1000, metrics.getEventsWritten());
+        long header = Files.readAllLines(logger.getFile().toPath()).get(0).length() + System.lineSeparator().length();
+        assertEquals(Files.size(logger.getFile().toPath()) - header, metrics.getBytesWritten());
+        assertEquals(0, metrics.getQueueDepth());
+        assertTrue(metrics.getQueueHighWaterMark() > 0);
+        assertTrue(metrics.getFlushCount() > 0);
+        assertTrue(metrics.getLatencyNanosP50() <= metrics.getLatencyNanosP99());
+        assertTrue(metrics.getLatencyNanosP99() <= metrics.getLatencyNanosMax());
+        assertEquals(0, metrics.getDroppedEvents());
+        assertTrue(metrics.getEventsPerSecond() >= 0);
+    }
+
+    @Test
+    public void test_jmx() throws Exception {
+        LogManager manager = LoggerFactory.getLogManager();
+        Logger logger = manager.createLogger(new LoggerConfig(dirPath.toString(), "jmx"));
+        for(int i = 0; i < 10; i++){
+            logger.warn("event {}", i);
+        }
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName("com.kovisoft.logger:type=Logger,name=\"jmx\",directory="
+                + ObjectName.quote(logger.getFile().getParent()));
+        assertTrue(server.isRegistered(name));
+        assertTrue(server.isRegistered(new ObjectName("com.kovisoft.logger:type=LogManager")));
+        assertTrue(manager.getLoggerMetrics().containsKey("jmx"));
+        manager.removeLogger(logger);
+        assertEquals(10L, logger.getMetrics().getEventsWritten());
+        assertFalse(server.isRegistered(name));
+    }
+
+    @Test
+    public void test_jmx_sameShortName() throws Exception {
+        LogManager manager = LoggerFactory.getLogManager();
+        Logger first = manager.addLogger(new LoggerImpl(new LoggerConfig(dirPath.resolve("a").toString(), "twin")));
+        Logger second = manager.addLogger(new LoggerImpl(new LoggerConfig(dirPath.resolve("b").toString(), "twin")));
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        assertEquals(2, server.queryNames(new ObjectName("com.kovisoft.logger:type=Logger,name=\"twin\",*"), null).size());
+        manager.removeLogger(first);
+        manager.removeLogger(second);
+        assertTrue(server.queryNames(new ObjectName("com.kovisoft.logger:type=Logger,name=\"twin\",*"), null).isEmpty());
+    }
+}
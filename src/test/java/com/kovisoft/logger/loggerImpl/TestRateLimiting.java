@@ -0,0 +1,172 @@
+package com.kovisoft.logger.loggerImpl;
+
+import com.kovisoft.logger.config.LoggerConfig;
+import com.kovisoft.logger.config.OverflowPolicy;
+import com.kovisoft.logger.config.RateLimitPolicy;
+import com.kovisoft.logger.exports.LogLevel;
+import com.kovisoft.logger.exports.Logger;
+import com.kovisoft.logger.exports.TestLoggerFactory;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static com.kovisoft.logger.loggerImpl.LoggerImpl.COLUMN_DELIMITER;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestRateLimiting {
+
+    static final String userdir = System.getProperty("user.dir");
+    static final Path dirPath = Paths.get(userdir, "test/limitLogs");
+
+    @BeforeAll
+    public static void setupEnvironment(){
+        try{
+            TestLoggerFactory.deleteDirectory(dirPath);
+        } catch (IOException e) {
+            System.out.println("Could not delete directory!");
+        }
+    }
+
+    @AfterAll
+    public static void teardownEnvironment(){
+        assertDoesNotThrow(()->TestLoggerFactory.deleteDirectory(dirPath));
+    }
+
+    private static List<String> messages(Logger logger) throws IOException {
+        return Files.readAllLines(logger.getFile().toPath()).stream()
+                .skip(1)
+                .map(line -> line.split(COLUMN_DELIMITER, -1)[3])
+                .toList();
+    }
+
+    @Test
+    public void test_tokenBucket(){
+        TokenBucket bucket = new TokenBucket(10, 5);
+        long now = System.nanoTime();
+        for(int i = 0; i < 5; i++){
+            assertTrue(bucket.tryAcquire(now));
+        }
+        assertFalse(bucket.tryAcquire(now));
+        assertFalse(bucket.tryAcquire(now + 50_000_000L));
+        assertTrue(bucket.tryAcquire(now + 100_000_000L));
+        assertFalse(bucket.tryAcquire(now + 100_000_000L));
+    }
+
+    @Test
+    public void test_loggerLimit_refundsLevelToken(){
+        RateLimiter limiter = new RateLimiter(new RateLimitPolicy().setLimit(10, 1).setLevelLimit(LogLevel.INFO, 1, 3));
+        long now = System.nanoTime();
+        assertTrue(limiter.tryAcquire(now, LogLevel.INFO));
+        // Turned away by the logger wide limit, the INFO token it took goes back.
+        assertFalse(limiter.tryAcquire(now, LogLevel.INFO));
+        assertTrue(limiter.tryAcquire(now + 100_000_000L, LogLevel.INFO));
+        assertTrue(limiter.tryAcquire(now + 200_000_000L, LogLevel.INFO));
+        assertFalse(limiter.tryAcquire(now + 300_000_000L, LogLevel.INFO));
+        assertEquals(2, limiter.dropped());
+    }
+
+    @Test
+    public void test_duplicates_everyRepeatReported() throws Exception {
+        // Windows short enough that callers keep replacing entries other callers are still counting on.
+        DuplicateFilter filter = new DuplicateFilter(1);
+        LongAdder reported = new LongAdder();
+        AtomicBoolean running = new AtomicBoolean(true);
+        List<Thread> callers = new ArrayList<>();
+        for(int t = 0; t < 4; t++){
+            Thread caller = new Thread(() -> {
+                for(int i = 0; i < 100_000; i++){
+                    filter.check(System.nanoTime(), LogLevel.WARN, null, "flapping", null, 1, i % 2, null, null, null);
+                }
+            });
+            caller.start();
+            callers.add(caller);
+        }
+        Thread checker = new Thread(() -> {
+            while(running.get()) filter.sweep(System.nanoTime(), false, (entry, repeats) -> reported.add(repeats));
+        });
+        checker.start();
+        for(Thread caller : callers) caller.join();
+        running.set(false);
+        checker.join();
+        filter.sweep(System.nanoTime(), true, (entry, repeats) -> reported.add(repeats));
+        assertTrue(filter.suppressed() > 0);
+        assertEquals(filter.suppressed(), reported.sum());
+    }
+
+    @Test
+    public void test_duplicates_collapsed() throws Exception {
+        Logger logger = new LoggerImpl(new LoggerConfig(dirPath.toString(), "duplicates")
+                .setRateLimitPolicy(new RateLimitPolicy().setDuplicateWindow(Duration.ofMinutes(1))));
+        for(int i = 0; i < 1500; i++){
+            logger.warn("Downstream unavailable");
+            logger.info("attempt {}", i % 2);
+        }
+        logger.log("something else");
+        assertTrue(logger.stopRunning());
+        List<String> messages = messages(logger);
+        assertEquals(List.of("Downstream unavailable", "attempt 0", "attempt 1", "something else",
+                "Downstream unavailable (repeated 1,499 times)",
+                "attempt 0 (repeated 749 times)", "attempt 1 (repeated 749 times)"),
+                sortSummaries(messages));
+    }
+
+    // The summaries come out in table order, which is down to the hashes.
+    private static List<String> sortSummaries(List<String> messages){
+        List<String> plain = messages.stream().filter(m -> !m.contains("(repeated")).toList();
+        List<String> summaries = messages.stream().filter(m -> m.contains("(repeated")).sorted().toList();
+        return Stream.concat(plain.stream(), summaries.stream()).toList();
+    }
+
+    @Test
+    public void test_rateLimit_dropsCounted() throws Exception {
+        Logger logger = new LoggerImpl(new LoggerConfig(dirPath.toString(), "limited")
+                .setRateLimitPolicy(new RateLimitPolicy().setLevelLimit(LogLevel.INFO, 5, 10)));
+        for(int i = 0; i < 1000; i++){
+            logger.info("flood " + i);
+        }
+        logger.error("errors are not limited");
+        assertTrue(logger.stopRunning());
+        List<String> messages = messages(logger);
+        long written = messages.stream().filter(m -> m.startsWith("flood")).count();
+        assertTrue(written >= 10 && written < 20, "written " + written);
+        assertTrue(messages.contains("errors are not limited"));
+        long dropped = 0;
+        Pattern summary = Pattern.compile("Rate limit dropped ([\\d,]+) events");
+        for(String message : messages){
+            Matcher matcher = summary.matcher(message);
+            if(matcher.matches()) dropped += Long.parseLong(matcher.group(1).replace(",", ""));
+        }
+        assertEquals(1000, written + dropped);
+    }
+
+    @Test
+    public void test_overflow_dropsCounted() throws Exception {
+        Logger logger = new LoggerImpl(new LoggerConfig(dirPath.toString(), "overflow")
+                .setQueueCapacity(16).setOverflowPolicy(OverflowPolicy.DROP_OLDEST));
+        for(int i = 0; i < 100_000; i++){
+            logger.info("flood " + i);
+        }
+        assertTrue(logger.stopRunning());
+        List<String> messages = messages(logger);
+        long written = messages.stream().filter(m -> m.startsWith("flood")).count();
+        assertEquals("flood 99999", messages.stream().filter(m -> m.startsWith("flood")).reduce((a, b) -> b).orElseThrow());
+        long dropped = 0;
+        Pattern summary = Pattern.compile("Queue full, DROP_OLDEST dropped ([\\d,]+) events");
+        for(String message : messages){
+            Matcher matcher = summary.matcher(message);
+            if(matcher.matches()) dropped += Long.parseLong(matcher.group(1).replace(",", ""));
+        }
+        assertEquals(100_000, written + dropped);
+    }
+}
@@ -0,0 +1,134 @@
+package com.kovisoft.logger.loggerImpl;
+
+import com.kovisoft.logger.config.OverflowPolicy;
+import com.kovisoft.logger.exports.LogLevel;
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestRingBuffer {
+
+    @Test
+    public void test_capacityFor(){
+        assertEquals(2, RingBuffer.capacityFor(1));
+        assertEquals(8, RingBuffer.capacityFor(8));
+        assertEquals(16, RingBuffer.capacityFor(9));
+    }
+
+    @Test
+    public void test_drop_when_full(){
+        RingBuffer ring = new RingBuffer(4, OverflowPolicy.DROP);
+        for(int i = 0; i < 4; i++){
+            long sequence = ring.claim();
+            assertEquals(i, sequence);
+            ring.get(sequence).set(i, LogLevel.LOG, "message" + i, null);
+            ring.publish(sequence);
+        }
+        assertEquals(-1, ring.claim());
+        assertEquals("message0", ring.peek().message);
+        ring.release();
+        assertEquals(4, ring.claim());
+    }
+
+    private static RingBuffer fill(RingBuffer ring){
+        for(int i = 0; i < ring.capacity(); i++){
+            long sequence = ring.claim();
+            ring.get(sequence).set(i, LogLevel.LOG, "message" + i, null);
+            ring.publish(sequence);
+        }
+        return ring;
+    }
+
+    @Test
+    public void test_dropOldest_when_full(){
+        RingBuffer ring = fill(new RingBuffer(4, OverflowPolicy.DROP_OLDEST));
+        // The writer has its own copy of the event it is holding, so its slot is free already.
+        assertEquals("message0", ring.peek().message);
+        for(int i = 4; i < 6; i++){
+            long sequence = ring.claim();
+            assertEquals(i, sequence);
+            ring.get(sequence).set(i, LogLevel.LOG, "message" + i, null);
+            ring.publish(sequence);
+        }
+        assertEquals("message0", ring.peek().message);
+        ring.release();
+        assertEquals("message2", ring.peek().message);
+        assertEquals(1, ring.dropped());
+    }
+
+    @Test
+    public void test_dropOldest_heldCopyIsPending(){
+        RingBuffer ring = new RingBuffer(4, OverflowPolicy.DROP_OLDEST);
+        long sequence = ring.claim();
+        ring.get(sequence).set(0, LogLevel.LOG, "message0", null);
+        ring.publish(sequence);
+        assertEquals("message0", ring.peek().message);
+        // Its slot is free again, but the event has not been written yet.
+        assertFalse(ring.isEmpty());
+        ring.release();
+        assertTrue(ring.isEmpty());
+    }
+
+    @Test
+    public void test_dropBelowLevel_when_full(){
+        RingBuffer ring = fill(new RingBuffer(4, OverflowPolicy.DROP_BELOW_LEVEL, 0, LogLevel.WARN, 1, () -> {}));
+        assertEquals(-1, ring.claim(LogLevel.INFO));
+        assertEquals(-1, ring.claim(LogLevel.LOG));
+        assertEquals(2, ring.dropped());
+        ring.peek();
+        ring.release();
+        assertEquals(4, ring.claim(LogLevel.WARN));
+    }
+
+    @Test
+    public void test_blockTimeout_when_full(){
+        RingBuffer ring = fill(new RingBuffer(4, OverflowPolicy.BLOCK_TIMEOUT, 20_000_000L, LogLevel.ERROR, 1, () -> {}));
+        long start = System.nanoTime();
+        assertEquals(-1, ring.claim(LogLevel.ERROR));
+        assertTrue(System.nanoTime() - start >= 20_000_000L);
+        assertEquals(1, ring.dropped());
+    }
+
+    @Test
+    public void test_multiple_producers_keep_order() throws InterruptedException {
+        int producers = 8;
+        int perProducer = 20_000;
+        RingBuffer ring = new RingBuffer(1024, OverflowPolicy.BLOCK);
+        List<Thread> threads = new ArrayList<>();
+        for(int p = 0; p < producers; p++){
+            final int producer = p;
+            Thread thread = new Thread(() -> {
+                for(int i = 0; i < perProducer; i++){
+                    long sequence = ring.claim();
+                    ring.get(sequence).set(i, LogLevel.values()[producer % LogLevel.values().length],
+                            Integer.toString(producer), null);
+                    ring.publish(sequence);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        long[] lastSeen = new long[producers];
+        Arrays.fill(lastSeen, -1);
+        int read = 0;
+        while(read < producers * perProducer){
+            LogEvent event = ring.peek();
+            if(event == null){
+                Thread.onSpinWait();
+                continue;
+            }
+            int producer = Integer.parseInt(event.message);
+            assertEquals(lastSeen[producer] + 1, event.epochNanos);
+            lastSeen[producer] = event.epochNanos;
+            ring.release();
+            read++;
+        }
+        for(Thread thread : threads) thread.join();
+        assertTrue(ring.isEmpty());
+        assertNull(ring.peek());
+    }
+}
@@ -0,0 +1,200 @@
+package com.kovisoft.logger.loggerImpl;
+
+import com.kovisoft.logger.config.LoggerConfig;
+import com.kovisoft.logger.config.OutputType;
+import com.kovisoft.logger.config.RollInterval;
+import com.kovisoft.logger.config.RollingPolicy;
+import com.kovisoft.logger.exports.Logger;
+import com.kovisoft.logger.exports.TestLoggerFactory;
+import org.junit.jupiter.api.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestRollingPolicy {
+
+    static final String userdir = System.getProperty("user.dir");
+    static final Path dirPath = Paths.get(userdir, "test/rollLogs");
+
+    /**
+     * The system clock moved by the test, for good with advance, or for one read with jumpOnce
+     * as if the clock was stepped back right after it.
+     */
+    static final class TestClock extends Clock {
+        private final Clock system = Clock.systemDefaultZone();
+        private volatile Duration offset = Duration.ZERO;
+        private volatile Instant ahead;
+
+        void advance(Duration by){
+            offset = offset.plus(by);
+        }
+
+        void jumpOnce(Duration by){
+            ahead = instant().plus(by);
+        }
+
+        boolean jumped(){
+            return ahead == null;
+        }
+
+        @Override
+        public ZoneId getZone(){
+            return system.getZone();
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone){
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant(){
+            Instant instant = ahead;
+            if(instant == null) return system.instant().plus(offset);
+            ahead = null;
+            return instant;
+        }
+    }
+
+    @BeforeAll
+    public static void setupEnvironment(){
+        try{
+            TestLoggerFactory.deleteDirectory(dirPath);
+        } catch (IOException e) {
+            System.out.println("Could not delete directory!");
+        }
+    }
+
+    @AfterAll
+    public static void teardownEnvironment(){
+        assertDoesNotThrow(()->TestLoggerFactory.deleteDirectory(dirPath));
+    }
+
+    @Test
+    public void test_fileNameFor(){
+        LoggerConfig config = new LoggerConfig(dirPath.toString(), "names");
+        assertEquals("names" + config.getDate() + ".log", config.fileNameFor(config.getDate(), -1, 0));
+        assertEquals("names" + config.getDate() + "-07.2.log", config.fileNameFor(config.getDate(), 7, 2));
+        assertTrue(LogArchiver.rolledFiles("names").matcher("names2024-01-31-07.2.log.gz").matches());
+        assertFalse(LogArchiver.rolledFiles("names").matcher("names12024-01-31.log").matches());
+    }
+
+    @Test
+    public void test_sizeRolling_compressAndRetain() throws Exception {
+        LoggerConfig config = new LoggerConfig(dirPath.toString(), "sized")
+                .setRollingPolicy(new RollingPolicy().setMaxFileBytes(4096).setMaxFiles(3).setCompress(true));
+        Logger logger = new LoggerImpl(config);
+        String message = "x".repeat(100);
+        for(int i = 0; i < 400; i++){
+            logger.log(message);
+        }
+        assertTrue(logger.stopRunning());
+        LogArchiver.awaitIdle();
+
+        File[] files = dirPath.toFile().listFiles((dir, name) -> name.startsWith("sized"));
+        assertNotNull(files);
+        assertEquals(3, files.length, Arrays.toString(files));
+        for(File file : files){
+            if(file.equals(logger.getFile())) continue;
+            assertTrue(file.getName().endsWith(".log.gz"), file.getName());
+            try(InputStream in = new GZIPInputStream(Files.newInputStream(file.toPath()))){
+                String text = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+                assertTrue(text.startsWith("Time"), text.substring(0, 20));
+                assertTrue(text.contains(message));
+            }
+        }
+        assertTrue(logger.getFile().getName().matches("sized.*\\.\\d+\\.log"), logger.getFile().getName());
+    }
+
+    @Test
+    public void test_hourlyFileName() throws Exception {
+        LoggerConfig config = new LoggerConfig(dirPath.toString(), "hourly")
+                .setRollingPolicy(new RollingPolicy().setInterval(RollInterval.HOURLY));
+        Logger logger = new LoggerImpl(config);
+        logger.log("hourly");
+        assertTrue(logger.stopRunning());
+        LocalDateTime now = LocalDateTime.now();
+        String name = logger.getFile().getName();
+        assertTrue(name.startsWith("hourly" + now.toLocalDate()), name);
+        assertTrue(name.matches("hourly.*-\\d{2}\\.log"), name);
+        assertFalse(config.getLogFile().exists());
+    }
+
+    @Test
+    public void test_clockStepsBack_keepsMappedFile() throws Exception {
+        TestClock clock = new TestClock();
+        Logger logger = new LoggerImpl(new LoggerConfig(dirPath.toString(), "stepBack").setClock(clock)
+                .setOutputType(OutputType.MEMORY_MAPPED).setRollingPolicy(new RollingPolicy().setInterval(RollInterval.DAILY)));
+        File file = logger.getFile();
+        logger.log("before the step");
+        // The writer sees the day as over, then works out the next file from today again.
+        clock.jumpOnce(Duration.ofDays(2));
+        logger.log("across the step");
+        long deadline = System.currentTimeMillis() + 5000;
+        while(!clock.jumped() && System.currentTimeMillis() < deadline) Thread.sleep(5);
+        assertTrue(clock.jumped());
+        logger.log("after the step");
+        assertTrue(logger.stopRunning());
+
+        assertEquals(file, logger.getFile());
+        List<String> lines = Files.readAllLines(file.toPath());
+        assertEquals(4, lines.size(), String.join("\n", lines));
+        assertTrue(lines.get(1).contains("before the step"));
+        assertTrue(lines.get(2).contains("across the step"));
+        assertTrue(lines.get(3).contains("after the step"));
+    }
+
+    @Test
+    public void test_nextDay_switchesFile() throws Exception {
+        TestClock clock = new TestClock();
+        Logger logger = new LoggerImpl(new LoggerConfig(dirPath.toString(), "nextDay").setClock(clock)
+                .setRollingPolicy(new RollingPolicy().setInterval(RollInterval.DAILY)));
+        File first = logger.getFile();
+        logger.log("the first day");
+        logger.sync().get(5, TimeUnit.SECONDS);
+        clock.advance(Duration.ofDays(1));
+        assertTrue(logger.needNewLog());
+        logger.log("the next day");
+        assertTrue(logger.stopRunning());
+
+        File next = logger.getFile();
+        assertNotEquals(first, next);
+        assertEquals("nextDay" + LocalDate.now(clock) + ".log", next.getName());
+        List<String> lines = Files.readAllLines(next.toPath());
+        assertEquals(2, lines.size(), String.join("\n", lines));
+        assertTrue(lines.get(0).startsWith("Time"), lines.get(0));
+        assertTrue(lines.get(1).contains("the next day"));
+        lines = Files.readAllLines(first.toPath());
+        assertEquals(2, lines.size(), String.join("\n", lines));
+        assertTrue(lines.get(1).contains("the first day"));
+    }
+
+    @Test
+    public void test_clock_datesLogFile(){
+        LoggerConfig config = new LoggerConfig(dirPath.toString(), "dated");
+        File systemDated = config.getLogFile();
+        config.setClock(Clock.offset(Clock.systemDefaultZone(), Duration.ofDays(3)));
+        LocalDate date = LocalDate.now().plusDays(3);
+        assertEquals(date, config.getDate());
+        assertEquals("dated" + date + ".log", config.getLogFile().getName());
+        assertTrue(config.getLogFile().exists());
+        assertFalse(systemDated.exists());
+    }
+}
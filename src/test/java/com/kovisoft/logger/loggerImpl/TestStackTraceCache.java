@@ -0,0 +1,133 @@
+package com.kovisoft.logger.loggerImpl;
+
+import com.kovisoft.logger.config.LoggerConfig;
+import com.kovisoft.logger.exports.Logger;
+import com.kovisoft.logger.exports.TestLoggerFactory;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.kovisoft.logger.loggerImpl.LoggerImpl.COLUMN_DELIMITER;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestStackTraceCache {
+
+    static final String userdir = System.getProperty("user.dir");
+    static final Path dirPath = Paths.get(userdir, "test/traceLogs");
+
+    @BeforeAll
+    public static void setupEnvironment(){
+        try{
+            TestLoggerFactory.deleteDirectory(dirPath);
+        } catch (IOException e) {
+            System.out.println("Could not delete directory!");
+        }
+    }
+
+    @AfterAll
+    public static void teardownEnvironment(){
+        assertDoesNotThrow(()->TestLoggerFactory.deleteDirectory(dirPath));
+    }
+
+    private static Exception failure(String message, Exception cause){
+        return new IllegalStateException(message, cause);
+    }
+
+    @Test
+    public void test_sameThrowSite_sameTrace(){
+        StackTraceCache cache = new StackTraceCache(16);
+        List<StackTraceCache.Trace> traces = new ArrayList<>();
+        for(int i = 0; i < 3; i++){
+            traces.add(cache.get(failure("attempt " + i, null)));
+        }
+        assertSame(traces.get(0), traces.get(1));
+        assertSame(traces.get(0), traces.get(2));
+        assertEquals(1, cache.size());
+        assertNotSame(traces.get(0), cache.get(failure("attempt", new IOException("io"))));
+        assertNotSame(cache.get(failure("attempt", new IOException("io"))), cache.get(failure("attempt", new IOException("other io"))));
+    }
+
+    @Test
+    public void test_render_matchesPrintStackTrace(){
+        Exception cause = new IOException("disk gone");
+        Exception e = failure("outer", cause);
+        e.addSuppressed(new RuntimeException("while closing"));
+        StringWriter printed = new StringWriter();
+        e.printStackTrace(new PrintWriter(printed));
+        List<String> expected = new ArrayList<>();
+        for(String line : printed.toString().split("\\R")){
+            expected.add(line.strip());
+        }
+        expected.remove(0); // printStackTrace starts with the throwable itself, the log has it in its own columns.
+        List<String> rendered = new ArrayList<>();
+        for(String line : StackTraceCache.render(e)){
+            rendered.add(line.startsWith("Caused by: ") || line.startsWith("Suppressed: ") || line.startsWith("... ")
+                    ? line : "at " + line);
+        }
+        assertEquals(expected, rendered);
+    }
+
+    @Test
+    public void test_noCause_unchanged(){
+        Exception e = new Exception("plain");
+        String[] expected = Arrays.stream(e.getStackTrace()).map(StackTraceElement::toString).toArray(String[]::new);
+        assertArrayEquals(expected, StackTraceCache.render(e));
+    }
+
+    @Test
+    public void test_bounded(){
+        StackTraceCache cache = new StackTraceCache(8);
+        List<StackTraceCache.Trace> traces = new ArrayList<>();
+        for(int i = 0; i <= 40; i++){
+            // The last one repeats the first, which has been evicted by then.
+            traces.add(cache.get(failure("distinct", new IOException(Integer.toString(i % 40)))));
+            assertTrue(cache.size() <= 8);
+        }
+        assertNotSame(traces.get(0), traces.get(40));
+        assertArrayEquals(traces.get(0).lines, traces.get(40).lines);
+    }
+
+    @Test
+    public void test_deepChains_notMistaken(){
+        StackTraceCache cache = new StackTraceCache(16);
+        // Identical for the first hundred links, only the innermost cause tells them apart.
+        Exception first = new IOException("first");
+        Exception second = new IOException("second");
+        for(int i = 0; i < 100; i++){
+            first = failure("link", first);
+            second = failure("link", second);
+        }
+        String[] firstLines = cache.get(first).lines;
+        String[] secondLines = cache.get(second).lines;
+        assertFalse(Arrays.equals(firstLines, secondLines));
+        assertArrayEquals(StackTraceCache.render(second), secondLines);
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void test_references() throws Exception {
+        Logger logger = new LoggerImpl(new LoggerConfig(dirPath.toString(), "references").setStackTraceReferences(true));
+        for(int i = 0; i < 3; i++){
+            logger.error("failed " + i, failure("failure " + i, null));
+        }
+        assertTrue(logger.stopRunning());
+        List<String> lines = Files.readAllLines(logger.getFile().toPath());
+        assertEquals(4, lines.size());
+        String[] first = lines.get(1).split(COLUMN_DELIMITER, -1);
+        assertTrue(first[5].startsWith("trace #"), first[5]);
+        String id = first[5].substring("trace ".length(), first[5].indexOf(LoggerImpl.LINE_DELIMITER));
+        for(int i = 2; i < 4; i++){
+            String[] columns = lines.get(i).split(COLUMN_DELIMITER, -1);
+            assertEquals("failure " + (i - 1), columns[4]);
+            assertEquals("see trace " + id, columns[5]);
+        }
+    }
+}
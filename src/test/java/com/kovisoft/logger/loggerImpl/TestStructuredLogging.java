@@ -0,0 +1,121 @@
+package com.kovisoft.logger.loggerImpl;
+
+import com.kovisoft.logger.config.Layout;
+import com.kovisoft.logger.config.LayoutEvent;
+import com.kovisoft.logger.config.LogFormat;
+import com.kovisoft.logger.config.LoggerConfig;
+import com.kovisoft.logger.exports.Fields;
+import com.kovisoft.logger.exports.Logger;
+import com.kovisoft.logger.exports.TestLoggerFactory;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static com.kovisoft.logger.loggerImpl.LoggerImpl.COLUMN_DELIMITER;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestStructuredLogging {
+
+    static final String userdir = System.getProperty("user.dir");
+    static final Path dirPath = Paths.get(userdir, "test/structuredLogs");
+
+    @BeforeAll
+    public static void setupEnvironment(){
+        try{
+            TestLoggerFactory.deleteDirectory(dirPath);
+        } catch (IOException e) {
+            System.out.println("Could not delete directory!");
+        }
+    }
+
+    @AfterAll
+    public static void teardownEnvironment(){
+        assertDoesNotThrow(()->TestLoggerFactory.deleteDirectory(dirPath));
+    }
+
+    private static final Fields FIELDS = Fields.of("user", 42, "ok", true, "name", "a \"b\"")
+            .and("ratio", 0.5).and("missing", null);
+
+    // Splits off the time, checking it reads back as an ISO-8601 date time, and returns the rest of the line.
+    private static String afterTime(String line, long before){
+        assertTrue(line.startsWith("{\"time\":\""), line);
+        int end = line.indexOf('"', 9);
+        OffsetDateTime time = OffsetDateTime.parse(line.substring(9, end));
+        assertEquals(ZoneOffset.UTC, time.getOffset());
+        assertTrue(time.toInstant().toEpochMilli() >= before, line);
+        return line.substring(end + 1);
+    }
+
+    @Test
+    public void test_json() throws Exception {
+        long before = System.currentTimeMillis();
+        Logger logger = new LoggerImpl(new LoggerConfig(dirPath.toString(), "json")
+                .setFormat(LogFormat.JSON).setZone(ZoneId.of("UTC")));
+        logger.info.log(FIELDS, "hello {}", "world");
+        logger.warn.log("line\nbreak\ttab \u0001 caf\u00e9 \uD83D\uDE00 back\\slash");
+        Exception e = new IllegalStateException("broken \"quoted\"");
+        logger.error.log(Fields.of("attempt", -7L), "failed", e);
+        logger.error.log("again", new RuntimeException());
+        assertTrue(logger.stopRunning());
+
+        List<String> lines = Files.readAllLines(logger.getFile().toPath());
+        assertEquals(4, lines.size());
+        assertEquals(",\"level\":\"INFO\",\"message\":\"hello world\",\"fields\":{\"user\":42,\"ok\":true,"
+                + "\"name\":\"a \\\"b\\\"\",\"ratio\":0.5,\"missing\":null}}", afterTime(lines.get(0), before));
+        assertEquals(",\"level\":\"WARN\",\"message\":\"line\\nbreak\\ttab \\u0001 caf\u00e9 \uD83D\uDE00 back\\\\slash\"}",
+                afterTime(lines.get(1), before));
+
+        String failure = afterTime(lines.get(2), before);
+        String prefix = ",\"level\":\"ERROR\",\"message\":\"failed\",\"fields\":{\"attempt\":-7},\"exception\":{"
+                + "\"class\":\"java.lang.IllegalStateException\",\"message\":\"broken \\\"quoted\\\"\",\"stackTrace\":[\"";
+        assertTrue(failure.startsWith(prefix), failure);
+        assertTrue(failure.substring(prefix.length()).startsWith(e.getStackTrace()[0].toString()), failure);
+        assertTrue(failure.endsWith("\"]}}"), failure);
+        assertTrue(afterTime(lines.get(3), before).contains("\"class\":\"java.lang.RuntimeException\",\"message\":null,"));
+    }
+
+    @Test
+    public void test_textFields_sameEagerAndDeferred() throws Exception {
+        for(boolean deferred : new boolean[]{true, false}){
+            Logger logger = new LoggerImpl(new LoggerConfig(dirPath.toString(), "text" + deferred)
+                    .setDeferredFormatting(deferred));
+            logger.info.log(FIELDS, "hello {}", "world");
+            logger.info.log(Fields.of("path", "C:\\temp", "empty", "", "eq", "a=b"), "plain");
+            assertTrue(logger.stopRunning());
+            List<String> lines = Files.readAllLines(logger.getFile().toPath());
+            assertEquals("hello world user=42 ok=true name=\"a \\\"b\\\"\" ratio=0.5 missing=null",
+                    lines.get(1).split(COLUMN_DELIMITER, -1)[3]);
+            assertEquals("plain path=\"C:\\\\temp\" empty=\"\" eq=\"a=b\"", lines.get(2).split(COLUMN_DELIMITER, -1)[3]);
+        }
+    }
+
+    @Test
+    public void test_layout() throws Exception {
+        Layout layout = new Layout() {
+            @Override
+            public void format(LayoutEvent event, StringBuilder out) {
+                out.append(event.getLevel()).append('|').append(event.getMessage());
+                if(event.getFields() != null) out.append('|').append(event.getFields().value(0));
+                if(event.getThrowable() != null) out.append('|').append(event.getThrowable().getMessage());
+            }
+
+            @Override
+            public String header() {
+                return "level|message";
+            }
+        };
+        Logger logger = new LoggerImpl(new LoggerConfig(dirPath.toString(), "layout").setLayout(layout));
+        logger.info.log(Fields.of("id", 7), "pattern {} {}", 1, 2);
+        logger.error.log("failed", new IOException("disk"));
+        assertTrue(logger.stopRunning());
+        assertEquals(List.of("level|message", "INFO|pattern 1 2|7", "ERROR|failed|disk"),
+                Files.readAllLines(logger.getFile().toPath()));
+    }
+}
@@ -0,0 +1,70 @@
+package com.kovisoft.logger.loggerImpl;
+
+import org.junit.jupiter.api.*;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestTimestampCache {
+
+    private static final byte[] COLUMN = "|".getBytes(StandardCharsets.UTF_8);
+
+    //Mirror of the original java.time rendering the cache replaces.
+    private static String expected(long epochNanos, ZoneId zone){
+        LocalDateTime timeStamp = LocalDateTime.ofInstant(Instant.ofEpochSecond(0, epochNanos), zone);
+        return timeStamp.toLocalTime() + "|" + timeStamp.toLocalDate() + "|";
+    }
+
+    private static String render(TimestampCache cache, long epochNanos){
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        cache.put(epochNanos, buffer, COLUMN);
+        return new String(buffer.array(), 0, buffer.position(), StandardCharsets.US_ASCII);
+    }
+
+    @Test
+    public void test_matches_java_time_across_dst(){
+        ZoneId zone = ZoneId.of("America/New_York");
+        TimestampCache cache = new TimestampCache(zone);
+        // Walk through the 2024 spring forward and fall back transitions a few minutes at a time.
+        long[] starts = {
+                Instant.parse("2024-03-10T06:00:00Z").getEpochSecond(),
+                Instant.parse("2024-11-03T05:00:00Z").getEpochSecond()
+        };
+        for(long start : starts){
+            for(long second = start; second < start + 3 * 3600; second += 137){
+                long epochNanos = second * 1_000_000_000L;
+                assertEquals(expected(epochNanos, zone), render(cache, epochNanos));
+            }
+        }
+    }
+
+    @Test
+    public void test_fraction_and_zero_layouts(){
+        ZoneId zone = ZoneId.of("UTC");
+        TimestampCache cache = new TimestampCache(zone);
+        long midnight = Instant.parse("2025-01-01T00:00:00Z").getEpochSecond() * 1_000_000_000L;
+        long[] offsets = {0, 1_000_000_000L, 120_000_000L, 120_500_000L, 120_500_001L, 59L * 60 * 1_000_000_000L};
+        for(long offset : offsets){
+            assertEquals(expected(midnight + offset, zone), render(cache, midnight + offset));
+        }
+        assertEquals("00:00|2025-01-01|", render(cache, midnight));
+    }
+
+    @Test
+    public void test_random_instants(){
+        ZoneId zone = ZoneId.of("Australia/Lord_Howe");
+        TimestampCache cache = new TimestampCache(zone);
+        Random random = new Random(42);
+        long now = System.currentTimeMillis() * 1_000_000L;
+        for(int i = 0; i < 10_000; i++){
+            long epochNanos = now + (random.nextLong() % (5L * 365 * 86_400 * 1_000_000_000L));
+            assertEquals(expected(epochNanos, zone), render(cache, epochNanos));
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.kovisoft.logger.loggerImpl;
+
+import com.kovisoft.logger.config.LoggerConfig;
+import com.kovisoft.logger.exports.Logger;
+import com.kovisoft.logger.exports.TestLoggerFactory;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestVirtualThreads {
+
+    static final String userdir = System.getProperty("user.dir");
+    static final Path dirPath = Paths.get(userdir, "test/virtualLogs");
+    static final int THREADS = 100_000;
+
+    @BeforeAll
+    public static void setupEnvironment(){
+        try{
+            TestLoggerFactory.deleteDirectory(dirPath);
+        } catch (IOException e) {
+            System.out.println("Could not delete directory!");
+        }
+    }
+
+    @AfterAll
+    public static void teardownEnvironment(){
+        assertDoesNotThrow(()->TestLoggerFactory.deleteDirectory(dirPath));
+    }
+
+    /**
+     * A queue far smaller than the number of callers, so most of them have to wait for a slot.
+     * Waiting parks the virtual thread, a caller that pinned its carrier would stall the rest for the whole run.
+     */
+    @Test
+    public void test_100kVirtualThreads_oneLogger() throws Exception {
+        Logger logger = new LoggerImpl(new LoggerConfig(dirPath.toString(), "virtual").setQueueCapacity(256));
+        try(ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()){
+            for(int i = 0; i < THREADS; i++){
+                final int thread = i;
+                executor.submit(() -> logger.info("virtual thread {}", thread));
+            }
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(60, TimeUnit.SECONDS));
+        }
+        assertTrue(logger.stopRunning());
+        try(Stream<String> lines = Files.lines(logger.getFile().toPath())){
+            assertEquals(THREADS + 1, lines.count());
+        }
+        assertEquals(THREADS, logger.getMetrics().getEventsWritten());
+        assertEquals(0, logger.getMetrics().getDroppedEvents());
+    }
+}
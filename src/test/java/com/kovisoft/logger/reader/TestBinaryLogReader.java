@@ -0,0 +1,162 @@
+package com.kovisoft.logger.reader;
+
+import com.kovisoft.logger.config.LogFormat;
+import com.kovisoft.logger.config.LoggerConfig;
+import com.kovisoft.logger.config.OutputType;
+import com.kovisoft.logger.exports.LogLevel;
+import com.kovisoft.logger.exports.Logger;
+import com.kovisoft.logger.exports.LoggerFactory;
+import com.kovisoft.logger.exports.TestLoggerFactory;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.kovisoft.logger.loggerImpl.LoggerImpl.COLUMN_DELIMITER;
+import static com.kovisoft.logger.loggerImpl.LoggerImpl.LINE_DELIMITER;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestBinaryLogReader {
+
+    static final String userdir = System.getProperty("user.dir");
+    static final Path dirPath = Paths.get(userdir, "test/binaryLogs");
+    static final ZoneId zone = ZoneId.of("America/New_York");
+
+    @BeforeAll
+    public static void setupEnvironment(){
+        try{
+            TestLoggerFactory.deleteDirectory(dirPath);
+        } catch (IOException e) {
+            System.out.println("Could not delete directory!");
+        }
+    }
+
+    @AfterAll
+    public static void teardownEnvironment(){
+        assertDoesNotThrow(()->TestLoggerFactory.deleteDirectory(dirPath));
+    }
+
+    private static Logger writeSample(String shortName, OutputType outputType) throws Exception {
+        Logger logger = LoggerFactory.createLogger(new LoggerConfig(dirPath.toString(), shortName)
+                .setFormat(LogFormat.BINARY).setOutputType(outputType));
+        logger.log("plain message");
+        logger.info("pattern {} and {}", 1, "two");
+        logger.warn("unicode caf\u00e9 \u20ac \uD83D\uDE00");
+        Exception e = new IllegalStateException("broken");
+        logger.error("first failure", e);
+        logger.error("second failure", e);
+        logger.log("x".repeat(200_000));
+        LoggerFactory.getLogManager().removeLogger(logger);
+        return logger;
+    }
+
+    @Test
+    public void test_roundTrip() throws Exception {
+        Logger logger = writeSample("binary", OutputType.FILE_CHANNEL);
+        try(BinaryLogReader reader = new BinaryLogReader(logger.getFile().toPath())){
+            List<LogRecord> records = reader.records().collect(Collectors.toList());
+            assertEquals(6, records.size());
+            assertEquals("plain message", records.get(0).getMessage());
+            assertEquals(LogLevel.LOG, records.get(0).getLevel());
+            assertFalse(records.get(0).hasException());
+            assertEquals("pattern 1 and two", records.get(1).getMessage());
+            assertEquals(LogLevel.INFO, records.get(1).getLevel());
+            assertEquals("unicode caf\u00e9 \u20ac \uD83D\uDE00", records.get(2).getMessage());
+            LogRecord failure = records.get(3);
+            assertEquals(LogLevel.ERROR, failure.getLevel());
+            assertEquals("broken", failure.getExceptionMessage());
+            assertEquals(records.get(4).getStackTrace(), failure.getStackTrace());
+            assertTrue(failure.getStackTrace().get(0).contains("writeSample"), failure.getStackTrace().get(0));
+            assertEquals(200_000, records.get(5).getMessage().length());
+            for(int i = 1; i < records.size(); i++){
+                assertTrue(records.get(i).getEpochNanos() >= records.get(i - 1).getEpochNanos());
+            }
+
+            String text = failure.toText(zone);
+            String[] columns = text.split(COLUMN_DELIMITER, -1);
+            assertEquals(6, columns.length);
+            assertEquals("Error", columns[2]);
+            assertEquals("first failure", columns[3]);
+            assertEquals("broken", columns[4]);
+            assertEquals(failure.getStackTrace(), Arrays.asList(columns[5].split(LINE_DELIMITER)));
+            assertTrue(records.get(0).toText(zone).endsWith(COLUMN_DELIMITER + "plain message" + COLUMN_DELIMITER + COLUMN_DELIMITER));
+        }
+    }
+
+    @Test
+    public void test_smallerThanText() throws Exception {
+        Logger logger = writeSample("mapped", OutputType.MEMORY_MAPPED);
+        StringWriter text = new StringWriter();
+        try(BinaryLogReader reader = new BinaryLogReader(logger.getFile().toPath())){
+            assertEquals(6, reader.writeText(text, zone));
+        }
+        assertTrue(Files.size(logger.getFile().toPath()) < text.toString().length());
+        assertTrue(text.toString().startsWith("Time" + COLUMN_DELIMITER));
+    }
+
+    @Test
+    public void test_truncatedRecordEndsStream() throws Exception {
+        Logger logger = writeSample("truncated", OutputType.FILE_CHANNEL);
+        Path file = logger.getFile().toPath();
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 1000));
+        try(Stream<LogRecord> records = new BinaryLogReader(file).records()){
+            assertEquals(5, records.count());
+        }
+    }
+
+    @Test
+    public void test_reopenAndAppend_readsBack() throws Exception {
+        for(OutputType outputType : OutputType.values()){
+            Logger first = writeSample("append" + outputType, outputType);
+            long appendedAfter = System.currentTimeMillis() * 1_000_000L;
+            Logger second = writeSample("append" + outputType, outputType);
+            long appendedBefore = (System.currentTimeMillis() + 1) * 1_000_000L;
+            assertEquals(first.getFile(), second.getFile());
+            try(BinaryLogReader reader = new BinaryLogReader(second.getFile().toPath())){
+                List<LogRecord> records = reader.records().collect(Collectors.toList());
+                assertEquals(12, records.size());
+                for(int i = 0; i < 6; i++){
+                    assertEquals(records.get(i).getMessage(), records.get(i + 6).getMessage());
+                    assertEquals(records.get(i).hasException(), records.get(i + 6).hasException());
+                    long nanos = records.get(i + 6).getEpochNanos();
+                    assertTrue(nanos >= appendedAfter && nanos <= appendedBefore, outputType + " " + nanos);
+                }
+                // Frame ids started over with the appended half, its trace still resolves to its own frames.
+                assertTrue(records.get(9).getStackTrace().get(0).contains("writeSample"));
+                assertEquals(records.get(9).getStackTrace(), records.get(10).getStackTrace());
+            }
+        }
+    }
+
+    @Test
+    public void test_corruptLevel_throwsIOException() throws Exception {
+        Logger logger = writeSample("corrupt", OutputType.FILE_CHANNEL);
+        Path file = logger.getFile().toPath();
+        byte[] bytes = Files.readAllBytes(file);
+        // Past the header, the first record's type and its timestamp varint lies its level.
+        int at = BinaryFormat.MAGIC.length + 2;
+        while(bytes[at] < 0) at++;
+        bytes[at + 1] = 99;
+        Files.write(file, bytes);
+        try(BinaryLogReader reader = new BinaryLogReader(file)){
+            IOException failure = assertThrows(IOException.class, reader::next);
+            assertTrue(failure.getMessage().contains("level"), failure.getMessage());
+        }
+    }
+
+    @Test
+    public void test_rejectsTextFile() throws Exception {
+        Logger logger = LoggerFactory.createLogger(dirPath.toString(), "text");
+        LoggerFactory.getLogManager().removeLogger(logger);
+        assertThrows(IOException.class, () -> new BinaryLogReader(logger.getFile().toPath()));
+    }
+}
@@ -0,0 +1,102 @@
+package com.kovisoft.logger.reader;
+
+import com.kovisoft.logger.config.LoggerConfig;
+import com.kovisoft.logger.exports.LogLevel;
+import com.kovisoft.logger.exports.Logger;
+import com.kovisoft.logger.exports.LoggerFactory;
+import com.kovisoft.logger.exports.TestLoggerFactory;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestIndexedLogReader {
+
+    static final String userdir = System.getProperty("user.dir");
+    static final Path dirPath = Paths.get(userdir, "test/indexedLogs");
+    static final ZoneId zone = ZoneId.of("UTC");
+
+    static Path logFile;
+    // Taken between the three rounds of writes, events are stamped when they are logged so these split them exactly.
+    static final Instant[] marks = new Instant[4];
+
+    @BeforeAll
+    public static void setupEnvironment() throws Exception {
+        try{
+            TestLoggerFactory.deleteDirectory(dirPath);
+        } catch (IOException e) {
+            System.out.println("Could not delete directory!");
+        }
+        Logger logger = LoggerFactory.createLogger(new LoggerConfig(dirPath.toString(), "indexed")
+                .setZone(zone).setIndexed(true).setIndexBlock(4096, Duration.ofMillis(20)));
+        for(int round = 0; round < 3; round++){
+            marks[round] = Instant.now();
+            for(int i = 0; i < 2000; i++){
+                if(i % 500 == 0) logger.error("round " + round + " failure " + i, new IllegalStateException("boom"));
+                else logger.info("round {} event {}", round, i);
+            }
+            Thread.sleep(60);
+        }
+        marks[3] = Instant.now();
+        LoggerFactory.getLogManager().removeLogger(logger);
+        logFile = logger.getFile().toPath();
+    }
+
+    @AfterAll
+    public static void teardownEnvironment(){
+        assertDoesNotThrow(()->TestLoggerFactory.deleteDirectory(dirPath));
+    }
+
+    private static List<String> messages(Path file, Instant from, Instant to, LogLevel... levels) throws IOException {
+        try(IndexedLogReader reader = new IndexedLogReader(file, zone);
+            Stream<LogRecord> records = reader.query(from, to, levels)){
+            return records.map(LogRecord::getMessage).toList();
+        }
+    }
+
+    @Test
+    public void test_errorsInRange() throws Exception {
+        assertEquals(List.of("round 1 failure 0", "round 1 failure 500", "round 1 failure 1000", "round 1 failure 1500"),
+                messages(logFile, marks[1], marks[2], LogLevel.ERROR));
+        assertEquals(6000, messages(logFile, marks[0], marks[3]).size());
+        assertEquals(2000, messages(logFile, marks[2], marks[3], LogLevel.INFO, LogLevel.ERROR).size());
+        assertTrue(messages(logFile, marks[3], marks[3].plusSeconds(60)).isEmpty());
+    }
+
+    @Test
+    public void test_readsOnlyMatchingBlocks() throws Exception {
+        long size = Files.size(logFile);
+        try(IndexedLogReader reader = new IndexedLogReader(logFile, zone)){
+            assertTrue(reader.bytesToRead(marks[1], marks[2], EnumSet.of(LogLevel.INFO)) < size / 2);
+            assertTrue(reader.bytesToRead(marks[0], marks[3], EnumSet.of(LogLevel.ERROR)) < size / 4);
+            assertEquals(0, reader.bytesToRead(marks[0], marks[3], EnumSet.of(LogLevel.WARN)));
+            LogRecord failure = reader.query(marks[0], marks[1], LogLevel.ERROR).findFirst().orElseThrow();
+            assertEquals("boom", failure.getExceptionMessage());
+            assertTrue(failure.getStackTrace().get(0).contains("setupEnvironment"), failure.getStackTrace().get(0));
+        }
+    }
+
+    @Test
+    public void test_missingOrTruncatedIndex_sameResults() throws Exception {
+        List<String> expected = messages(logFile, marks[1], marks[2], LogLevel.ERROR);
+        Path copy = dirPath.resolve("copy.log");
+        Files.copy(logFile, copy);
+        assertEquals(expected, messages(copy, marks[1], marks[2], LogLevel.ERROR));
+
+        byte[] index = Files.readAllBytes(IndexFormat.indexFileFor(logFile));
+        Files.write(IndexFormat.indexFileFor(copy), Arrays.copyOf(index, index.length / 2 + 7));
+        assertEquals(expected, messages(copy, marks[1], marks[2], LogLevel.ERROR));
+        assertEquals(6000, messages(copy, marks[0], marks[3]).size());
+    }
+}
@@ -0,0 +1,134 @@
+package com.kovisoft.logger.reader;
+
+import com.kovisoft.logger.config.LoggerConfig;
+import com.kovisoft.logger.config.RollingPolicy;
+import com.kovisoft.logger.exports.LogLevel;
+import com.kovisoft.logger.exports.Logger;
+import com.kovisoft.logger.exports.LoggerFactory;
+import com.kovisoft.logger.exports.TestLoggerFactory;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestLogSearch {
+
+    static final String userdir = System.getProperty("user.dir");
+    static final Path dirPath = Paths.get(userdir, "test/searchLogs");
+    static final ZoneId zone = ZoneId.of("UTC");
+    static final int EVENTS = 20_000;
+
+    @BeforeAll
+    public static void setupEnvironment() throws Exception {
+        try{
+            TestLoggerFactory.deleteDirectory(dirPath);
+        } catch (IOException e) {
+            System.out.println("Could not delete directory!");
+        }
+        Logger logger = LoggerFactory.createLogger(new LoggerConfig(dirPath.toString(), "search").setZone(zone)
+                .setRollingPolicy(new RollingPolicy().setMaxFileBytes(256 * 1024)));
+        for(int i = 0; i < EVENTS; i++){
+            if(i % 10 == 0){
+                Exception e = new IllegalStateException("cause " + i % 4);
+                e.setStackTrace(new StackTraceElement[]{new StackTraceElement("Search", "run", "Search.java", i)});
+                logger.error("failure " + i % 3, e);
+            } else {
+                logger.info("event {}", i);
+            }
+        }
+        LoggerFactory.getLogManager().removeLogger(logger);
+        // Another logger's file in the same directory must not be picked up.
+        Logger other = LoggerFactory.createLogger(dirPath.toString(), "searchOther");
+        other.error("not mine");
+        LoggerFactory.getLogManager().removeLogger(other);
+    }
+
+    @AfterAll
+    public static void teardownEnvironment(){
+        assertDoesNotThrow(()->TestLoggerFactory.deleteDirectory(dirPath));
+    }
+
+    private static LogSearch search() throws IOException {
+        return LogSearch.forLogger(dirPath, "search", zone).setChunkBytes(4096);
+    }
+
+    @Test
+    public void test_aggregations() throws Exception {
+        assertEquals(EVENTS, search().count());
+        assertEquals(Map.of(LogLevel.ERROR, 2000L, LogLevel.INFO, 18_000L), search().countByLevel());
+        assertEquals(List.of(Map.entry("failure 0", 667L), Map.entry("failure 1", 667L)),
+                search().setLevels(LogLevel.ERROR).topMessages(2));
+        assertEquals(List.of(Map.entry("cause 0", 1000L), Map.entry("cause 2", 1000L)), search().topExceptionMessages(5));
+        Map<LocalDateTime, Long> perHour = search().setLevels(LogLevel.ERROR).countByHour();
+        assertEquals(2000L, perHour.values().stream().mapToLong(Long::longValue).sum());
+        perHour.keySet().forEach(hour -> assertEquals(0, hour.getMinute()));
+        assertEquals(10_000, search().setFilter(record -> record.getMessage().startsWith("event 1")).count());
+    }
+
+    @Test
+    public void test_sameResultWhateverTheSplit() throws Exception {
+        assertTrue(Files.list(dirPath).filter(path -> path.getFileName().toString().startsWith("search2")).count() > 3);
+        List<String> sequential = search().setPool(new ForkJoinPool(1)).setChunkBytes(1 << 30)
+                .aggregate(ArrayList<String>::new, (list, record) -> list.add(record.getMessage()), (a, b) -> {
+                    a.addAll(b);
+                    return a;
+                });
+        List<String> parallel = search().setPool(new ForkJoinPool(4))
+                .aggregate(ArrayList<String>::new, (list, record) -> list.add(record.getMessage()), (a, b) -> {
+                    a.addAll(b);
+                    return a;
+                });
+        assertEquals(EVENTS, sequential.size());
+        assertEquals(sequential, parallel);
+    }
+
+    @Test
+    public void test_compressedFile() throws Exception {
+        Path copy = dirPath.resolve("gzipped");
+        Files.createDirectories(copy);
+        for(Path file : Files.list(dirPath).filter(path -> path.getFileName().toString().matches("search\\d.*\\.log")).toList()){
+            try(OutputStream out = new GZIPOutputStream(Files.newOutputStream(copy.resolve(file.getFileName() + ".gz")))){
+                Files.copy(file, out);
+            }
+        }
+        assertEquals(search().countByLevel(), LogSearch.forLogger(copy, "search", zone).countByLevel());
+    }
+
+    @Test
+    public void test_forLogger_rollOrder() throws Exception {
+        Path ordered = dirPath.resolve("ordered");
+        Files.createDirectories(ordered);
+        List<String> template = Files.readAllLines(dirPath.resolve("search" + LocalDate.now() + ".log"));
+        List<String> names = List.of("ordered2024-01-01.log", "ordered2024-01-01.2.log", "ordered2024-01-01.10.log.gz",
+                "ordered2024-01-01-03.log", "ordered2024-01-01-03.1.log", "ordered2024-01-01-12.log", "ordered2024-01-02.log");
+        String line = template.stream().filter(text -> text.contains("\tevent 1\t")).findFirst().orElseThrow();
+        for(String name : names){
+            String text = template.get(0) + "\n" + line.replace("\tevent 1\t", "\t" + name + "\t") + "\n";
+            try(OutputStream out = name.endsWith(".gz")
+                    ? new GZIPOutputStream(Files.newOutputStream(ordered.resolve(name)))
+                    : Files.newOutputStream(ordered.resolve(name))){
+                out.write(text.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        List<String> messages = LogSearch.forLogger(ordered, "ordered", zone)
+                .aggregate(ArrayList<String>::new, (list, record) -> list.add(record.getMessage()), (a, b) -> {
+                    a.addAll(b);
+                    return a;
+                });
+        assertEquals(names, messages);
+    }
+}